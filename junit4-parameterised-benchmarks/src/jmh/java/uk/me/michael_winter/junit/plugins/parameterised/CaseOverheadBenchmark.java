@@ -0,0 +1,81 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.TestClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of running a single empty test, with and without {@code @Before}, {@code @After} and
+ * {@code @Rule} members, against running it with {@link BlockJUnit4ClassRunner}.
+ * <p>
+ * This lives in the package of the runner so that it can run a {@link NonParameterisedTestRunner} directly.
+ */
+@State(Scope.Benchmark)
+public class CaseOverheadBenchmark {
+    @Param({"plain", "lifecycle"})
+    public String tests;
+
+    private final RunNotifier notifier = new RunNotifier();
+    private NonParameterisedTestRunner nonParameterisedTestRunner;
+    private ParameterisedRunner parameterisedRunner;
+    private BlockJUnit4ClassRunner blockJUnit4ClassRunner;
+
+    @Setup
+    public void setUp() throws InitializationError {
+        Class<?> testClass = tests.equals("plain") ? PlainTests.class : LifecycleTests.class;
+        FrameworkMethod method = new TestClass(testClass).getAnnotatedMethods(Test.class).get(0);
+        nonParameterisedTestRunner = new NonParameterisedTestRunner(new TestClass(testClass), method);
+        parameterisedRunner = new ParameterisedRunner(testClass);
+        blockJUnit4ClassRunner = new BlockJUnit4ClassRunner(testClass);
+    }
+
+    @Benchmark
+    public void nonParameterisedTestRunner() {
+        nonParameterisedTestRunner.run(notifier);
+    }
+
+    @Benchmark
+    public void parameterisedRunner() {
+        parameterisedRunner.run(notifier);
+    }
+
+    @Benchmark
+    public void blockJUnit4ClassRunner() {
+        blockJUnit4ClassRunner.run(notifier);
+    }
+
+    public static class PlainTests {
+        @Test
+        public void aTest() {
+        }
+    }
+
+    public static class LifecycleTests {
+        @Rule
+        public final TestRule rule = (statement, description) -> statement;
+
+        @Before
+        public void setUp() {
+        }
+
+        @After
+        public void tearDown() {
+        }
+
+        @Test
+        public void aTest() {
+        }
+    }
+}
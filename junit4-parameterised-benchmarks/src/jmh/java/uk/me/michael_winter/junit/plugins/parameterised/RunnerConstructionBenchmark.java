@@ -0,0 +1,88 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.Runner;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.model.InitializationError;
+import org.openjdk.jmh.annotations.Benchmark;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures building and validating a runner for a test class, against the stock JUnit runners.
+ */
+public class RunnerConstructionBenchmark {
+    @Benchmark
+    public Runner parameterisedRunner() throws InitializationError {
+        return new ParameterisedRunner(ExampleTests.class);
+    }
+
+    @Benchmark
+    public Runner blockJUnit4ClassRunner() throws InitializationError {
+        return new BlockJUnit4ClassRunner(ExampleTests.class);
+    }
+
+    @Benchmark
+    public Runner parameterisedRunnerWithParameters() throws InitializationError {
+        return new ParameterisedRunner(ParameterisedExampleTests.class);
+    }
+
+    @Benchmark
+    public Runner parameterized() throws Throwable {
+        return new Parameterized(ParameterizedExampleTests.class);
+    }
+
+    public static class ExampleTests {
+        @Rule
+        public final TestName name = new TestName();
+
+        @Before
+        public void setUp() {
+        }
+
+        @After
+        public void tearDown() {
+        }
+
+        @Test
+        public void aTest() {
+        }
+
+        @Test
+        public void anotherTest() {
+        }
+
+        @Test
+        public void yetAnotherTest() {
+        }
+    }
+
+    public static class ParameterisedExampleTests {
+        @Test
+        public void aTest(@ParameterIntValues({1, 2, 3}) int value) {
+        }
+    }
+
+    public static class ParameterizedExampleTests {
+        @Parameter
+        public int value;
+
+        @Parameters
+        public static List<Object> values() {
+            return Arrays.asList(1, 2, 3);
+        }
+
+        @Test
+        public void aTest() {
+        }
+    }
+}
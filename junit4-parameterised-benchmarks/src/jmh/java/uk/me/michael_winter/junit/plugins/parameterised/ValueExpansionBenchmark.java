@@ -0,0 +1,72 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the cost per case of expanding and running a test method over 100 {@link ParameterIntValues}, against
+ * running the same cases with {@link Parameterized}.
+ */
+@State(Scope.Benchmark)
+public class ValueExpansionBenchmark {
+    private static final int CASES = 100;
+
+    private final RunNotifier notifier = new RunNotifier();
+    private ParameterisedRunner parameterisedRunner;
+    private Parameterized parameterized;
+
+    @Setup
+    public void setUp() throws Throwable {
+        parameterisedRunner = new ParameterisedRunner(IntValuesTests.class);
+        parameterized = new Parameterized(ParameterizedTests.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CASES)
+    public void parameterisedRunner() {
+        parameterisedRunner.run(notifier);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CASES)
+    public void parameterized() {
+        parameterized.run(notifier);
+    }
+
+    public static class IntValuesTests {
+        @Test
+        public void aTest(@ParameterIntValues({0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19,
+                20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39,
+                40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59,
+                60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79,
+                80, 81, 82, 83, 84, 85, 86, 87, 88, 89, 90, 91, 92, 93, 94, 95, 96, 97, 98, 99}) int value) {
+        }
+    }
+
+    public static class ParameterizedTests {
+        @Parameter
+        public int value;
+
+        @Parameters
+        public static List<Integer> values() {
+            return IntStream.range(0, CASES).boxed().collect(Collectors.toList());
+        }
+
+        @Test
+        public void aTest() {
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package uk.me.michael_winter.junit.plugins.parameterised.examples;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import uk.me.michael_winter.junit.plugins.parameterised.ParameterisedRunner;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(ParameterisedRunner.class)
+public class ParameterisedTest {
+    @Test
+    public void shouldRunOnceForEachValue(@ParameterIntValues({1, 2, 3}) int value) {
+        assertThat(value).isPositive();
+    }
+
+    @Test
+    public void shouldRunOnceForEachValueInRange(@ParameterIntRange(from = 0, to = 100, step = 10) int value) {
+        assertThat(value % 10).isZero();
+    }
+
+    @Test
+    public void shouldRunOnceForEachCombinationOfValues(@ParameterIntValues({-1, 1}) int sign,
+                                                        @ParameterIntRange(from = 1, to = 4) int magnitude) {
+        assertThat(Math.abs(sign * magnitude)).isEqualTo(magnitude);
+    }
+}
@@ -0,0 +1,25 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.StatelessTest;
+
+@StatelessTest
+public class AllocationFreeExample {
+    private int count;
+
+    @Before
+    public void setUp() {
+        count++;
+    }
+
+    @After
+    public void tearDown() {
+        count--;
+    }
+
+    @Test
+    public void aValidTest() {
+    }
+}
@@ -0,0 +1,13 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import static org.junit.Assert.assertNotEquals;
+
+public class BoxedParameterIntValuesExample {
+    @Test
+    public void aFailingTest(@ParameterIntValues({1, 2, 3}) Integer value) {
+        assertNotEquals("expected to fail", Integer.valueOf(2), value);
+    }
+}
@@ -0,0 +1,22 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+@SuppressWarnings("unused")
+public class CartesianProductExample {
+    @Test
+    public void aValidTest(@ParameterIntValues({1, 2}) int first, @ParameterIntRange(to = 3) int second) {
+    }
+
+    @MaxCases(4)
+    @Test
+    public void aLimitedTest(@ParameterIntRange(to = 100_000) int first, @ParameterIntRange(to = 100_000) int second) {
+    }
+
+    @Test
+    public void anEmptyTest(@ParameterIntValues({1, 2}) int first, @ParameterIntValues({}) int second) {
+    }
+}
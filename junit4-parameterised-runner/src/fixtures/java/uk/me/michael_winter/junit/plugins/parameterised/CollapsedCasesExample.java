@@ -0,0 +1,19 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CollapseCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import static org.junit.Assert.assertNotEquals;
+
+@CollapseCases
+public class CollapsedCasesExample {
+    @Test
+    public void aValidTest(@ParameterIntValues({1, 2, 3}) int value) {
+    }
+
+    @Test
+    public void aFailingTest(@ParameterIntValues({1, 2, 3}) int value) {
+        assertNotEquals("expected to fail", 2, value);
+    }
+}
@@ -0,0 +1,21 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class ConcurrentTestExample {
+    private static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+    @Test
+    public void aValidTest() throws Exception {
+        barrier.await(5, SECONDS);
+    }
+
+    @Test
+    public void anotherValidTest() throws Exception {
+        barrier.await(5, SECONDS);
+    }
+}
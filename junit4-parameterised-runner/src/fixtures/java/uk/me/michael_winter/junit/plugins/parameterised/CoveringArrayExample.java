@@ -0,0 +1,24 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CoveringArray;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+
+@SuppressWarnings("unused")
+@CoveringArray
+public class CoveringArrayExample {
+    @Test
+    public void aValidTest(@ParameterIntRange(to = 3) int first,
+                           @ParameterIntRange(to = 3) int second,
+                           @ParameterIntRange(to = 3) int third,
+                           @ParameterIntRange(to = 3) int fourth) {
+    }
+
+    @CoveringArray(strength = 4)
+    @Test
+    public void anExhaustiveTest(@ParameterIntRange(to = 3) int first,
+                                 @ParameterIntRange(to = 3) int second,
+                                 @ParameterIntRange(to = 3) int third,
+                                 @ParameterIntRange(to = 3) int fourth) {
+    }
+}
@@ -0,0 +1,58 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterFactory;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+@SuppressWarnings("unused")
+public class FactoryMethodExample {
+    private static final AtomicInteger streamsClosed = new AtomicInteger();
+    private static final AtomicInteger colourCalls = new AtomicInteger();
+
+    public static Stream<String> words() {
+        return Stream.of("one", "two", "three").onClose(streamsClosed::incrementAndGet);
+    }
+
+    public static IntStream evens() {
+        return IntStream.iterate(0, i -> i + 2).onClose(streamsClosed::incrementAndGet);
+    }
+
+    public static Iterator<Integer> lengths() {
+        return Arrays.asList(3, 5).iterator();
+    }
+
+    public static Stream<String> colours() {
+        colourCalls.incrementAndGet();
+        return Stream.of("red", "green");
+    }
+
+    static int colourCalls() {
+        return colourCalls.get();
+    }
+
+    static int streamsClosed() {
+        return streamsClosed.get();
+    }
+
+    @Test
+    public void aValidTest(@ParameterFactory("words") String word, @ParameterFactory("lengths") Integer length) {
+    }
+
+    @Test
+    public void aCachedTest(@ParameterFactory(value = "colours", cached = true) String colour) {
+    }
+
+    @MaxCases(5)
+    @Test
+    public void anUnboundedTest(@ParameterFactory("evens") int value) {
+        assertEquals(0, value % 2);
+    }
+}
@@ -0,0 +1,16 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+
+import static org.junit.Assert.fail;
+
+public class FailingConstructorExample {
+    public FailingConstructorExample() {
+        throw new IllegalStateException("expected to fail");
+    }
+
+    @Test
+    public void aValidTest() {
+        fail("This test should fail if evaluated");
+    }
+}
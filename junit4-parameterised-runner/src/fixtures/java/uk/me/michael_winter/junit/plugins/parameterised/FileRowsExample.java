@@ -0,0 +1,22 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.FileFormat;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterFileRows;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileRowsExample {
+    @Test
+    public void aValidTest(@ParameterFileRows(value = "rows.csv", header = true) String[] row) {
+        assertEquals(3, row.length);
+    }
+
+    @Test
+    public void aBinaryTest(
+            @ParameterFileRows(value = "records.bin", format = FileFormat.BINARY, recordSize = 12) ByteBuffer record) {
+        assertEquals(record.getInt(0) * 100L, record.getLong(4));
+    }
+}
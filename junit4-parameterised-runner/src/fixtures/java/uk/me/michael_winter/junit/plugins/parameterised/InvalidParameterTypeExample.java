@@ -0,0 +1,11 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+@SuppressWarnings("unused")
+public class InvalidParameterTypeExample {
+    @Test
+    public void aValidTest(@ParameterIntValues({1, 2, 3}) String value) {
+    }
+}
@@ -0,0 +1,20 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CoveringArray;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterFactory;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import java.util.stream.IntStream;
+
+@SuppressWarnings("unused")
+public class InvalidUnboundedCoveringArrayExample {
+    public static IntStream naturals() {
+        return IntStream.iterate(0, i -> i + 1);
+    }
+
+    @Test
+    @CoveringArray
+    public void anUnboundedTest(@ParameterFactory("naturals") int natural, @ParameterIntValues({1, 2}) int value) {
+    }
+}
@@ -0,0 +1,33 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxFailures;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.fail;
+
+@MaxFailures(3)
+public class MaxFailuresExample {
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    public MaxFailuresExample() {
+        instances.incrementAndGet();
+    }
+
+    static int instancesCreated() {
+        return instances.get();
+    }
+
+    @MaxFailures(2)
+    @Test
+    public void aFailingTest(@ParameterIntRange(to = 10) int value) {
+        fail("expected to fail");
+    }
+
+    @Test
+    public void anotherFailingTest(@ParameterIntRange(to = 10) int value) {
+        fail("expected to fail");
+    }
+}
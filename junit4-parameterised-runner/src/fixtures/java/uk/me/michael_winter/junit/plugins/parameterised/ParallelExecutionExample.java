@@ -0,0 +1,24 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.Execution;
+
+import java.util.concurrent.CyclicBarrier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static uk.me.michael_winter.junit.plugins.parameterised.annotations.ExecutionMode.PARALLEL;
+
+@Execution(value = PARALLEL, parallelism = 2)
+public class ParallelExecutionExample {
+    private static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+    @Test
+    public void aValidTest() throws Exception {
+        barrier.await(5, SECONDS);
+    }
+
+    @Test
+    public void anotherValidTest() throws Exception {
+        barrier.await(5, SECONDS);
+    }
+}
@@ -0,0 +1,27 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+
+@SuppressWarnings("unused")
+public class ParameterIntRangeExample {
+    @Test
+    public void aValidTest(@ParameterIntRange(from = 0, to = 10, step = 3) int value) {
+    }
+
+    @Test
+    public void aDescendingTest(@ParameterIntRange(from = 3, to = 0, step = -1) int value) {
+    }
+
+    @Test
+    public void aHugeTest(@ParameterIntRange(to = Integer.MAX_VALUE) int value) {
+    }
+
+    @Test
+    public void aMillionCaseTest(@ParameterIntRange(to = 1_000_000) int value) {
+    }
+
+    @Test
+    public void anInvalidTest(@ParameterIntRange(to = 10, step = 0) int value) {
+    }
+}
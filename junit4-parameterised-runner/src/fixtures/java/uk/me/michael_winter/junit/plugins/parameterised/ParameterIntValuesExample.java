@@ -0,0 +1,25 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+public class ParameterIntValuesExample {
+    @Test
+    public void aValidTest(@ParameterIntValues({1, 2, 3}) int value) {
+    }
+
+    @Test
+    public void aFailingTest(@ParameterIntValues({1, 2, 3}) int value) {
+        assertNotEquals("expected to fail", 2, value);
+    }
+
+    @Ignore
+    @Test
+    public void testIsIgnored(@ParameterIntValues({1, 2, 3}) int value) {
+        fail("This test should fail if evaluated");
+    }
+}
@@ -0,0 +1,29 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterFactory;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+
+import java.util.stream.Stream;
+
+public class ShardedExample {
+    public static Stream<Object> objects() {
+        return Stream.generate(Object::new).limit(50);
+    }
+
+    @Test
+    public void aTest() {
+    }
+
+    @Test
+    public void anotherTest() {
+    }
+
+    @Test
+    public void aParameterisedTest(@ParameterIntRange(to = 100) int value) {
+    }
+
+    @Test
+    public void anUnnamedParameterTest(@ParameterFactory("objects") Object value) {
+    }
+}
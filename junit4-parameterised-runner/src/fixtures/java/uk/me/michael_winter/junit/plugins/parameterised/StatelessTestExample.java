@@ -0,0 +1,28 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.StatelessTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@StatelessTest
+public class StatelessTestExample {
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    public StatelessTestExample() {
+        instances.incrementAndGet();
+    }
+
+    static int instancesCreated() {
+        return instances.get();
+    }
+
+    @Test
+    public void aTest() {
+    }
+
+    @Test
+    public void aParameterisedTest(@ParameterIntValues({1, 2, 3, 4, 5}) int value) {
+    }
+}
@@ -0,0 +1,42 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.Execution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static uk.me.michael_winter.junit.plugins.parameterised.annotations.ExecutionMode.VIRTUAL_THREADS;
+
+@Execution(value = VIRTUAL_THREADS, maxConcurrentCases = 2)
+public class VirtualThreadExecutionExample {
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+
+    static int maxConcurrentTests() {
+        return maxRunning.get();
+    }
+
+    @Test
+    public void aValidTest() throws Exception {
+        block();
+    }
+
+    @Test
+    public void anotherValidTest() throws Exception {
+        block();
+    }
+
+    @Test
+    public void yetAnotherValidTest() throws Exception {
+        block();
+    }
+
+    private static void block() throws InterruptedException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(200);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.Execution;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ExecutionMode;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertNotNull;
+
+@Execution(value = ExecutionMode.WORKER_PROCESSES, parallelism = 2)
+public class WorkerProcessClassSetupExample {
+    @ClassRule
+    public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Object resource = null;
+
+    @BeforeClass
+    public static void createResource() {
+        resource = new Object();
+    }
+
+    @AfterClass
+    public static void dropResource() {
+        resource = null;
+    }
+
+    @Test
+    public void aValidTest(@ParameterIntValues({1, 2, 3, 4}) int value) throws IOException {
+        assertNotNull(resource);
+        temporaryFolder.newFile("case-" + value);
+    }
+}
@@ -0,0 +1,29 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.Execution;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ExecutionMode;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.fail;
+
+@Execution(value = ExecutionMode.WORKER_PROCESSES, parallelism = 2)
+public class WorkerProcessExecutionExample {
+    @Test
+    public void aValidTest(@ParameterIntValues({1, 2, 3, 4}) int value) {
+    }
+
+    @Test
+    public void aFailingTest() {
+        fail(ManagementFactory.getRuntimeMXBean().getName());
+    }
+
+    @Test
+    public void anExitingTest(@ParameterIntValues(1) int value) {
+        if (System.getProperty("sun.java.command", "").contains(WorkerProcess.class.getName())) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues notifications sent by tests and delivers them to listeners on a thread of its own, so that slow listeners
+ * do not hold up the tests. Notifications are delivered one at a time, in the order they were sent, and each wake-up
+ * of the delivering thread delivers all those queued.
+ * <p>
+ * A test is only stopped once the notification of an earlier test starting has been delivered, so more tests may
+ * start after a request to stop than when notifying synchronously.
+ */
+class AsyncRunNotifier extends RunNotifier {
+    private final RunNotifier notifier;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Thread dispatcher = new Thread(this::dispatch, "parameterised-notifier");
+    private volatile boolean waiting = false;
+    private volatile boolean closed = false;
+    private volatile boolean stopped = false;
+
+    AsyncRunNotifier(RunNotifier notifier) {
+        this.notifier = notifier;
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Delivers the notifications still queued, waiting until they have been.
+     */
+    void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        CaseScheduler.rethrow(failure.getAndSet(null));
+    }
+
+    @Override
+    public void addListener(RunListener listener) {
+        notifier.addListener(listener);
+    }
+
+    @Override
+    public void addFirstListener(RunListener listener) {
+        notifier.addFirstListener(listener);
+    }
+
+    @Override
+    public void removeListener(RunListener listener) {
+        notifier.removeListener(listener);
+    }
+
+    @Override
+    public void fireTestRunStarted(Description description) {
+        send(() -> notifier.fireTestRunStarted(description));
+    }
+
+    @Override
+    public void fireTestRunFinished(Result result) {
+        send(() -> notifier.fireTestRunFinished(result));
+    }
+
+    @Override
+    public void fireTestStarted(Description description) throws StoppedByUserException {
+        if (stopped) {
+            throw new StoppedByUserException();
+        }
+        send(() -> {
+            try {
+                notifier.fireTestStarted(description);
+            } catch (StoppedByUserException e) {
+                stopped = true;
+            }
+        });
+    }
+
+    @Override
+    public void fireTestFailure(Failure failure) {
+        send(() -> notifier.fireTestFailure(failure));
+    }
+
+    @Override
+    public void fireTestAssumptionFailed(Failure failure) {
+        send(() -> notifier.fireTestAssumptionFailed(failure));
+    }
+
+    @Override
+    public void fireTestIgnored(Description description) {
+        send(() -> notifier.fireTestIgnored(description));
+    }
+
+    @Override
+    public void fireTestFinished(Description description) {
+        send(() -> notifier.fireTestFinished(description));
+    }
+
+    @Override
+    public void pleaseStop() {
+        stopped = true;
+        notifier.pleaseStop();
+    }
+
+    private void send(Runnable notification) {
+        queue.add(notification);
+        if (waiting) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Runnable notification = queue.poll();
+            if (notification != null) {
+                deliver(notification);
+            } else if (closed) {
+                if (queue.isEmpty()) {
+                    return;
+                }
+            } else {
+                waiting = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+            }
+        }
+    }
+
+    private void deliver(Runnable notification) {
+        try {
+            notification.run();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+}
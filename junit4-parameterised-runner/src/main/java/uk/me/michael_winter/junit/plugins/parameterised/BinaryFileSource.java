@@ -0,0 +1,99 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides the fixed-size records of a binary file, each as a read-only slice of the mapped file.
+ */
+class BinaryFileSource extends MappedFileSource {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int NAMED_BYTES = 32;
+
+    private final int recordSize;
+    private final ByteOrder order;
+
+    BinaryFileSource(Path file, int recordSize, ByteOrder order) {
+        super(file);
+        if (recordSize <= 0) {
+            throw new IllegalArgumentException("Record size of " + file + " should be positive");
+        }
+
+        this.recordSize = recordSize;
+        this.order = order;
+    }
+
+    @Override
+    public Class<?> valueType() {
+        return ByteBuffer.class;
+    }
+
+    /**
+     * Records are named by their bytes in hexadecimal. Records longer than {@value #NAMED_BYTES} bytes are named by
+     * their first {@code NAMED_BYTES / 2} bytes followed by a hash of the whole record, to keep names short.
+     */
+    @Override
+    public String nameOf(Object value) {
+        ByteBuffer record = (ByteBuffer) value;
+        int length = record.remaining();
+        if (length <= NAMED_BYTES) {
+            return hex(record, length).toString();
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash ^= record.get(record.position() + i) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        StringBuilder name = hex(record, NAMED_BYTES / 2).append("...#");
+        for (int shift = Long.SIZE - 4; shift >= 0; shift -= 4) {
+            name.append(HEX_DIGITS[(int) (hash >>> shift) & 0xf]);
+        }
+        return name.toString();
+    }
+
+    private static StringBuilder hex(ByteBuffer record, int length) {
+        StringBuilder name = new StringBuilder(length * 2 + 20);
+        for (int i = 0; i < length; i++) {
+            int b = record.get(record.position() + i) & 0xff;
+            name.append(HEX_DIGITS[b >>> 4]).append(HEX_DIGITS[b & 0xf]);
+        }
+        return name;
+    }
+
+    @Override
+    public Iterator<ByteBuffer> iterator() {
+        long size = size();
+        int windowSize = Math.max(1, WINDOW_SIZE / recordSize) * recordSize;
+        return new Iterator<ByteBuffer>() {
+            private long position = 0;
+            private long windowStart = 0;
+            private MappedByteBuffer window = null;
+
+            @Override
+            public boolean hasNext() {
+                return size - position >= recordSize;
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (window == null || position + recordSize > windowStart + window.capacity()) {
+                    windowStart = position;
+                    window = map(position, (int) Math.min(windowSize, size - position));
+                }
+                ByteBuffer record = window.duplicate();
+                int offset = (int) (position - windowStart);
+                ((Buffer) record).limit(offset + recordSize).position(offset);
+                position += recordSize;
+                return record.slice().order(order);
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over every combination of the values of several parameters, varying the last parameter fastest.
+ * <p>
+ * Only one value of each parameter is held at a time: each parameter's source is iterated again, from the start,
+ * every time the parameter before it advances, and the last iterator over it closed if it can be.
+ */
+class CartesianProduct implements Iterator<Object[]>, AutoCloseable {
+    private final List<ParameterSource> sources;
+    private final Iterator<?>[] iterators;
+    private final Object[] current;
+    private boolean hasNext = true;
+
+    CartesianProduct(List<ParameterSource> sources) {
+        this.sources = sources;
+        this.iterators = new Iterator<?>[sources.size()];
+        this.current = new Object[sources.size()];
+
+        for (int i = 0; i < iterators.length && hasNext; i++) {
+            hasNext = restart(i);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext) {
+            throw new NoSuchElementException();
+        }
+        Object[] combination = current.clone();
+        advance();
+        return combination;
+    }
+
+    private void advance() {
+        for (int i = iterators.length - 1; i >= 0; i--) {
+            if (iterators[i].hasNext()) {
+                current[i] = iterators[i].next();
+                return;
+            }
+            if (i == 0 || !restart(i)) {
+                break;
+            }
+        }
+        hasNext = false;
+    }
+
+    /**
+     * Closes the iterators over the values of every parameter, should iteration stop before the last combination.
+     */
+    @Override
+    public void close() {
+        for (Iterator<?> iterator : iterators) {
+            ParameterSource.close(iterator);
+        }
+    }
+
+    private boolean restart(int index) {
+        ParameterSource.close(iterators[index]);
+        iterators[index] = sources.get(index).iterator();
+        if (!iterators[index].hasNext()) {
+            return false;
+        }
+        current[index] = iterators[index].next();
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the arguments of the case of a parameterised test method from its name, without generating the method's
+ * other cases, so that a filter selecting one case of a large parameter space can be applied at once.
+ * <p>
+ * {@code int} values are parsed and looked up in their source directly. Other values are looked up by their string
+ * form, in a map of each parameter's values built on first use; the size of these maps is the total of the numbers
+ * of values of the parameters, rather than their product.
+ */
+final class CaseIndex {
+    private static final String METHOD_FILTER_PREFIX = "Method ";
+    private static final String SEPARATOR = ", ";
+
+    private final List<ParameterSource> sources;
+    private final Map<?, ?>[] valuesByName;
+
+    CaseIndex(List<ParameterSource> sources) {
+        this.sources = sources;
+        this.valuesByName = new Map<?, ?>[sources.size()];
+    }
+
+    /**
+     * Recognises a filter created by {@link Filter#matchMethodDescription} from the way it describes itself. This is
+     * only a fast path: a filter describing itself in any other way is applied to each case as it is generated
+     * instead, and one describing itself in this way is only trusted if it runs the test it names.
+     *
+     * @return the name of the single test of {@code testClass} selected by {@code filter}, or {@code null} if it is
+     * not known to select a single test.
+     */
+    static String selectedTest(Filter filter, Class<?> testClass) {
+        String selection = filter.describe();
+        String suffix = "(" + testClass.getName() + ")";
+        if (!selection.startsWith(METHOD_FILTER_PREFIX) || !selection.endsWith(suffix)) {
+            return null;
+        }
+        String name = selection.substring(METHOD_FILTER_PREFIX.length(), selection.length() - suffix.length());
+        return filter.shouldRun(Description.createTestDescription(testClass, name)) ? name : null;
+    }
+
+    /**
+     * @return whether cases can be found by name, which they cannot if the values of any parameter are too many to
+     * be held in memory.
+     */
+    boolean isIndexable() {
+        return sources.stream().allMatch(ParameterSource::isIndexable);
+    }
+
+    /**
+     * @param caseId the arguments of a case as they appear between the brackets of its name.
+     * @return the arguments of the case, or {@code null} if there is no such case.
+     */
+    Object[] find(String caseId) {
+        Object[] arguments = new Object[sources.size()];
+        return find(caseId, 0, 0, arguments) ? arguments : null;
+    }
+
+    /**
+     * Matches the values of the parameters from {@code parameter} on against {@code caseId} from {@code start},
+     * trying each separator in turn as the end of the value of {@code parameter}, since values may contain it.
+     */
+    private boolean find(String caseId, int start, int parameter, Object[] arguments) {
+        if (parameter == arguments.length - 1) {
+            return lookUp(parameter, caseId.substring(start), arguments);
+        }
+        for (int end = caseId.indexOf(SEPARATOR, start); end >= 0; end = caseId.indexOf(SEPARATOR, end + 1)) {
+            if (lookUp(parameter, caseId.substring(start, end), arguments)
+                    && find(caseId, end + SEPARATOR.length(), parameter + 1, arguments)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean lookUp(int parameter, String name, Object[] arguments) {
+        ParameterSource source = sources.get(parameter);
+        if (source instanceof IntParameterSource) {
+            int value;
+            try {
+                value = Integer.parseInt(name);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (!((IntParameterSource) source).contains(value)) {
+                return false;
+            }
+            arguments[parameter] = value;
+            return true;
+        }
+
+        Map<?, ?> values = values(parameter);
+        if (!values.containsKey(name)) {
+            return false;
+        }
+        arguments[parameter] = values.get(name);
+        return true;
+    }
+
+    private synchronized Map<?, ?> values(int parameter) {
+        Map<?, ?> values = valuesByName[parameter];
+        if (values == null) {
+            Map<String, Object> byName = new HashMap<>();
+            for (Iterator<?> iterator = sources.get(parameter).iterator(); iterator.hasNext(); ) {
+                Object value = iterator.next();
+                byName.putIfAbsent(sources.get(parameter).nameOf(value), value);
+            }
+            values = byName;
+            valuesByName[parameter] = values;
+        }
+        return values;
+    }
+}
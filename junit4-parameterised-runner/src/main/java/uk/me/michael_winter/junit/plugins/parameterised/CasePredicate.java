@@ -0,0 +1,177 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Selects the cases of parameterised test methods to run by the values passed to their parameters, as given by the
+ * {@code junit.parameterised.casePredicate} system property.
+ * <p>
+ * The predicate is a list of clauses separated by {@code ;}, all of which must hold: either
+ * {@code <parameter> in <from>..<to>}, inclusive of both, or {@code <parameter> <operator> <value>} with one of the
+ * operators {@code == != < <= > >=}. Numbers are compared as {@code double}s and other values by their string form.
+ * Parameters are named as reported by reflection, so {@code arg0}, {@code arg1} and so on unless the test is compiled
+ * with {@code -parameters}, and clauses naming a parameter that a method does not have do not apply to it.
+ */
+final class CasePredicate {
+    private static final Pattern RANGE = Pattern.compile("\\s*(\\w+)\\s+in\\s+(.+?)\\.\\.(.+?)\\s*");
+    private static final Pattern COMPARISON = Pattern.compile("\\s*(\\w+)\\s*(==|!=|<=|>=|<|>)\\s*(.*?)\\s*");
+
+    private final List<Clause> clauses;
+
+    private CasePredicate(List<Clause> clauses) {
+        this.clauses = unmodifiableList(clauses);
+    }
+
+    /**
+     * @return the predicate set by the system property, or {@code null} if none is.
+     * @throws IllegalArgumentException if the predicate is malformed.
+     */
+    static CasePredicate fromProperties() {
+        return RunnerProperties.stringProperty(RunnerProperties.CASE_PREDICATE)
+                .map(CasePredicate::parse)
+                .orElse(null);
+    }
+
+    static CasePredicate parse(String predicate) {
+        List<Clause> clauses = new ArrayList<>();
+        for (String clause : predicate.split(";")) {
+            if (clause.trim().isEmpty()) {
+                continue;
+            }
+            Matcher range = RANGE.matcher(clause);
+            Matcher comparison = COMPARISON.matcher(clause);
+            if (range.matches()) {
+                clauses.add(new Clause(range.group(1), Operator.GE, range.group(2).trim(), -1));
+                clauses.add(new Clause(range.group(1), Operator.LE, range.group(3).trim(), -1));
+            } else if (comparison.matches()) {
+                clauses.add(new Clause(comparison.group(1), Operator.of(comparison.group(2)), comparison.group(3), -1));
+            } else {
+                throw new IllegalArgumentException("Case predicate clause '" + clause.trim()
+                        + "' should be '<parameter> in <from>..<to>' or '<parameter> <operator> <value>'");
+            }
+        }
+        return new CasePredicate(clauses);
+    }
+
+    /**
+     * @return the clauses that apply to the parameters of {@code method}, or {@code null} if none do.
+     */
+    CasePredicate forMethod(Method method) {
+        Parameter[] parameters = method.getParameters();
+        List<Clause> applicable = new ArrayList<>();
+        for (Clause clause : clauses) {
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].getName().equals(clause.parameter)) {
+                    applicable.add(new Clause(clause.parameter, clause.operator, clause.value, i));
+                }
+            }
+        }
+        return applicable.isEmpty() ? null : new CasePredicate(applicable);
+    }
+
+    /**
+     * @return whether the case passed {@code arguments} should run, for a predicate bound by {@link #forMethod}.
+     */
+    boolean test(Object[] arguments) {
+        for (int i = 0; i < clauses.size(); i++) {
+            Clause clause = clauses.get(i);
+            if (!clause.operator.holds(clause.compareTo(arguments[clause.index]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the case of a method with a single {@code int} parameter passed {@code argument} should run.
+     */
+    boolean test(int argument) {
+        for (int i = 0; i < clauses.size(); i++) {
+            Clause clause = clauses.get(i);
+            if (!clause.operator.holds(clause.compareTo(argument))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private enum Operator {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Operator of(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operator " + symbol);
+        }
+
+        boolean holds(int comparison) {
+            switch (this) {
+                case EQ:
+                    return comparison == 0;
+                case NE:
+                    return comparison != 0;
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                case GE:
+                default:
+                    return comparison >= 0;
+            }
+        }
+    }
+
+    private static final class Clause {
+        final String parameter;
+        final Operator operator;
+        final String value;
+        final double number;
+        final int index;
+
+        Clause(String parameter, Operator operator, String value, int index) {
+            this.parameter = parameter;
+            this.operator = operator;
+            this.value = value;
+            this.number = parseNumber(value);
+            this.index = index;
+        }
+
+        int compareTo(Object argument) {
+            return argument instanceof Number && !Double.isNaN(number)
+                    ? Double.compare(((Number) argument).doubleValue(), number)
+                    : String.valueOf(argument).compareTo(value);
+        }
+
+        int compareTo(int argument) {
+            return !Double.isNaN(number)
+                    ? Double.compare(argument, number)
+                    : Integer.toString(argument).compareTo(value);
+        }
+
+        private static double parseNumber(String value) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+    }
+}
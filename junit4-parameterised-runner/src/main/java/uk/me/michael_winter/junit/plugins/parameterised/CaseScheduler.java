@@ -0,0 +1,74 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * Schedules the test cases of a {@link ParameterisedRunner}.
+ * <p>
+ * Children are dispatched on the calling thread, in order, and hand each test case to {@link #execute(Runnable)}.
+ * Implementations may run cases on other threads, but {@link #finished()} must not return until every case has
+ * completed.
+ */
+public abstract class CaseScheduler implements RunnerScheduler {
+    public static CaseScheduler sequential() {
+        return new SequentialScheduler();
+    }
+
+    /**
+     * @param parallelism the number of worker threads, or zero to use one per available processor.
+     */
+    public static CaseScheduler parallel(int parallelism) {
+        return new ForkJoinScheduler(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param maxConcurrentCases the maximum number of cases run at once, or zero to use the default.
+     */
+    public static CaseScheduler virtualThreads(int maxConcurrentCases) {
+        return new VirtualThreadScheduler(maxConcurrentCases > 0
+                ? maxConcurrentCases
+                : VirtualThreadScheduler.DEFAULT_MAX_CONCURRENT_CASES);
+    }
+
+    /**
+     * @param workers the number of worker processes, or zero to use one per available processor.
+     */
+    public static CaseScheduler workerProcesses(int workers) {
+        return new WorkerProcessScheduler(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void schedule(Runnable childStatement) {
+        childStatement.run();
+    }
+
+    public abstract void execute(Runnable testCase);
+
+    /**
+     * Executes a single test, which by default is run as any other test case.
+     */
+    void execute(TestCaseRunner testCase, RunNotifier notifier) {
+        execute(() -> testCase.run(notifier));
+    }
+
+    /**
+     * Rethrows a failure of the scheduler itself, rather than of a test case, once the cases have finished.
+     */
+    static void rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new IllegalStateException("Test case failed unexpectedly", e);
+        }
+    }
+
+    /**
+     * @return whether cases may run on more than one thread at a time, requiring notifications to be serialised.
+     */
+    protected boolean isConcurrent() {
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+/**
+ * Selects the test cases run by this JVM when cases are spread across several, so that each case is run by exactly
+ * one of them.
+ * <p>
+ * A case belongs to the shard selected by a hash of its identity: the name of its class together with the name of
+ * its method and, for a case of a parameterised method, its position in the order the method's cases are generated.
+ * Positions are used rather than the names of arguments, which need not be the same in every JVM, so every JVM
+ * sharing the work agrees on the shard of each case without coordinating.
+ */
+final class CaseSharding {
+    private static final CaseSharding UNSHARDED = new CaseSharding(0, 1);
+
+    private final int index;
+    private final int count;
+
+    private CaseSharding(int index, int count) {
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @param index the shard run by this JVM, counting from zero.
+     * @param count the number of shards the cases are spread across.
+     */
+    static CaseSharding of(int index, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Shard count should be positive, but was " + count);
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index should be between 0 and " + (count - 1)
+                    + ", but was " + index);
+        }
+        return count == 1 ? UNSHARDED : new CaseSharding(index, count);
+    }
+
+    static CaseSharding fromProperties() {
+        return of(RunnerProperties.intProperty(RunnerProperties.SHARD_INDEX, 0),
+                RunnerProperties.intProperty(RunnerProperties.SHARD_COUNT, 1));
+    }
+
+    boolean isSharded() {
+        return count > 1;
+    }
+
+    /**
+     * @param className  the name of the class declaring the test.
+     * @param methodName the name of the test method.
+     * @return whether the test should be run by this JVM.
+     */
+    boolean isLocal(String className, String methodName) {
+        return count == 1 || isLocal(hash(className, methodName));
+    }
+
+    /**
+     * @param className  the name of the class declaring the case.
+     * @param methodName the name of the parameterised test method.
+     * @param ordinal    the position of the case among those generated for the method, counting from zero.
+     * @return whether the case should be run by this JVM.
+     */
+    boolean isLocal(String className, String methodName, long ordinal) {
+        return count == 1 || isLocal(hash(className, methodName) * 0x9E3779B97F4A7C15L + ordinal);
+    }
+
+    private boolean isLocal(long hash) {
+        return Math.floorMod(mix(hash), count) == index;
+    }
+
+    private static long hash(String className, String methodName) {
+        return className.hashCode() * 0x9E3779B97F4A7C15L + methodName.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "shard-" + index + "-of-" + count;
+    }
+
+    /**
+     * Spreads similar identities, such as those of consecutive cases, evenly across the shards.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,227 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runners.model.Statement;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Records where the time is spent running the tests of a class: creating test instances, in {@code @Before} methods,
+ * in the tests themselves, in {@code @After} methods and in rules. The durations of each method are counted in
+ * histograms, and its slowest cases are kept, for a summary reported once the class has run.
+ */
+final class CaseTimings {
+    private static final int SLOWEST_CASES = 5;
+
+    enum Phase {
+        CONSTRUCTION,
+        TEST,
+        BEFORE,
+        AFTER,
+        RULES
+    }
+
+    private final String className;
+    private final Path reportDirectory;
+    private final Map<String, MethodTimings> methods = new ConcurrentHashMap<>();
+
+    CaseTimings(String className, Path reportDirectory) {
+        this.className = className;
+        this.reportDirectory = reportDirectory;
+    }
+
+    /**
+     * @return timings reported to the directory named by the {@code junit.parameterised.timings} system property, or
+     * {@code null} if it is not set.
+     */
+    static CaseTimings fromProperties(String className) {
+        return RunnerProperties.stringProperty(RunnerProperties.TIMINGS)
+                .map(directory -> new CaseTimings(className, Paths.get(directory)))
+                .orElse(null);
+    }
+
+    /**
+     * @return a timer for a single case of {@code methodName}.
+     */
+    Timer newTimer(String methodName) {
+        return new Timer(methods.computeIfAbsent(methodName, name -> new MethodTimings()));
+    }
+
+    /**
+     * Reports the timings recorded since the last report to {@code <class>.timings.txt} in the report directory.
+     */
+    void report() {
+        List<Map.Entry<String, MethodTimings>> reported = new ArrayList<>(methods.entrySet());
+        methods.clear();
+        if (reported.isEmpty()) {
+            return;
+        }
+        reported.sort(Map.Entry.comparingByKey());
+
+        try {
+            Files.createDirectories(reportDirectory);
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(reportDirectory.resolve(className + ".timings.txt")), false, "UTF-8")) {
+                report(reported, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void report(List<Map.Entry<String, MethodTimings>> reported, PrintStream out) {
+        out.println("Timings of " + className + " (milliseconds)");
+        out.println(String.format(ROOT, "%-40s %-12s %10s %10s %10s %10s", "method", "phase", "count", "p50", "p99",
+                "max"));
+        for (Map.Entry<String, MethodTimings> method : reported) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = method.getValue().phases[phase.ordinal()];
+                long count = histogram.count();
+                if (count > 0) {
+                    out.println(String.format(ROOT, "%-40s %-12s %10d %10.3f %10.3f %10.3f",
+                            method.getKey(), phase.name().toLowerCase(ROOT), count,
+                            millis(histogram.percentile(0.5)), millis(histogram.percentile(0.99)),
+                            millis(histogram.max())));
+                }
+            }
+            for (SlowCase slowCase : method.getValue().slowestCases()) {
+                out.println(String.format(ROOT, "  slow case %s: %.3f", slowCase.name, millis(slowCase.nanos)));
+            }
+        }
+        out.flush();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static class MethodTimings {
+        private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+        private final PriorityQueue<SlowCase> slowestCases
+                = new PriorityQueue<>(Comparator.comparingLong(slowCase -> slowCase.nanos));
+        private volatile long slowCaseThreshold = 0;
+
+        MethodTimings() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        void recordCase(String name, long nanos) {
+            if (nanos <= slowCaseThreshold) {
+                return;
+            }
+            synchronized (slowestCases) {
+                slowestCases.add(new SlowCase(name, nanos));
+                if (slowestCases.size() > SLOWEST_CASES) {
+                    slowestCases.remove();
+                    slowCaseThreshold = slowestCases.peek().nanos;
+                }
+            }
+        }
+
+        List<SlowCase> slowestCases() {
+            List<SlowCase> cases;
+            synchronized (slowestCases) {
+                cases = new ArrayList<>(slowestCases);
+            }
+            cases.sort(Comparator.comparingLong((SlowCase slowCase) -> slowCase.nanos).reversed());
+            return cases;
+        }
+    }
+
+    private static class SlowCase {
+        private final String name;
+        private final long nanos;
+
+        SlowCase(String name, long nanos) {
+            this.name = name;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Times the phases of a single case. Each phase is timed by wrapping the statement running it, including the
+     * phases it wraps, which are subtracted once the case has finished.
+     */
+    static final class Timer {
+        private final MethodTimings method;
+        private final long[] inclusive = new long[Phase.values().length];
+        private final long started = System.nanoTime();
+
+        private Timer(MethodTimings method) {
+            this.method = method;
+            Arrays.fill(inclusive, -1);
+        }
+
+        Object construct(ExecutionPlan plan) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return plan.testInstance();
+            } finally {
+                inclusive[Phase.CONSTRUCTION.ordinal()] = System.nanoTime() - start;
+            }
+        }
+
+        /**
+         * @param statement the statement running {@code phase}, including those of the phases before it.
+         * @param inner     the statement {@code statement} wraps, which is {@code statement} itself if the case has
+         *                  nothing to run in {@code phase}.
+         */
+        Statement timing(Statement statement, Statement inner, Phase phase) {
+            return statement == inner ? statement : new Timed(statement, this, phase);
+        }
+
+        void finished(String caseName) {
+            long previous = 0;
+            for (Phase phase : Phase.values()) {
+                long nanos = inclusive[phase.ordinal()];
+                if (nanos < 0) {
+                    continue;
+                }
+                if (phase == Phase.CONSTRUCTION) {
+                    method.phases[phase.ordinal()].record(nanos);
+                } else {
+                    method.phases[phase.ordinal()].record(nanos - previous);
+                    previous = nanos;
+                }
+            }
+            method.recordCase(caseName, System.nanoTime() - started);
+        }
+    }
+
+    private static class Timed extends Statement {
+        private final Statement next;
+        private final Timer timer;
+        private final Phase phase;
+
+        Timed(Statement next, Timer timer, Phase phase) {
+            this.next = next;
+            this.timer = timer;
+            this.phase = phase;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            long start = System.nanoTime();
+            try {
+                next.evaluate();
+            } finally {
+                timer.inclusive[phase.ordinal()] = System.nanoTime() - start;
+            }
+        }
+    }
+}
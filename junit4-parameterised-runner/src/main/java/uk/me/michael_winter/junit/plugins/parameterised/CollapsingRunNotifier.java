@@ -0,0 +1,122 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reports the cases of a parameterised test method as a single test.
+ * <p>
+ * The method's test starts when the first case starts and finishes once the last case has finished, which may be on
+ * another thread. Each failure of a case is reported against the method, identifying the case. Cases that fail an
+ * assumption count as not having run: if none of the cases that finished ran, the method is reported as having failed
+ * the first assumption to fail. If no case started at all, as they were ignored, skipped or filtered out, the method
+ * is reported as ignored.
+ */
+class CollapsingRunNotifier extends RunNotifier {
+    private final RunNotifier notifier;
+    private final Description description;
+    private final AtomicLong pending = new AtomicLong(1);
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong assumptionsFailed = new AtomicLong();
+    private final AtomicReference<Failure> firstAssumptionFailure = new AtomicReference<>();
+    private volatile boolean started = false;
+
+    CollapsingRunNotifier(RunNotifier notifier, Description description) {
+        this.notifier = notifier;
+        this.description = description;
+    }
+
+    void expectCase() {
+        pending.incrementAndGet();
+    }
+
+    void allCasesDispatched() {
+        completeOne();
+    }
+
+    @Override
+    public void addListener(RunListener listener) {
+        notifier.addListener(listener);
+    }
+
+    @Override
+    public void addFirstListener(RunListener listener) {
+        notifier.addFirstListener(listener);
+    }
+
+    @Override
+    public void removeListener(RunListener listener) {
+        notifier.removeListener(listener);
+    }
+
+    @Override
+    public void fireTestStarted(Description description) {
+        if (!started) {
+            synchronized (this) {
+                if (!started) {
+                    notifier.fireTestStarted(this.description);
+                    started = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fireTestFailure(Failure failure) {
+        notifier.fireTestFailure(new Failure(description, identifyingCase(failure)));
+    }
+
+    @Override
+    public void fireTestAssumptionFailed(Failure failure) {
+        firstAssumptionFailure.compareAndSet(null, failure);
+        assumptionsFailed.incrementAndGet();
+    }
+
+    @Override
+    public void fireTestIgnored(Description description) {
+        completeOne();
+    }
+
+    @Override
+    public void fireTestFinished(Description description) {
+        finished.incrementAndGet();
+        completeOne();
+    }
+
+    @Override
+    public void pleaseStop() {
+        notifier.pleaseStop();
+    }
+
+    private void completeOne() {
+        if (pending.decrementAndGet() == 0) {
+            if (!started) {
+                notifier.fireTestIgnored(description);
+                return;
+            }
+            Failure assumptionFailure = firstAssumptionFailure.get();
+            if (assumptionFailure != null && finished.get() == assumptionsFailed.get()) {
+                notifier.fireTestAssumptionFailed(new Failure(description, identifyingCase(assumptionFailure)));
+            }
+            notifier.fireTestFinished(description);
+        }
+    }
+
+    private static Throwable identifyingCase(Failure failure) {
+        Throwable cause = failure.getException();
+        String message = failure.getDescription().getMethodName() + ": " + cause;
+        Throwable identified = cause instanceof AssertionError
+                ? new AssertionError(message, cause)
+                : cause instanceof AssumptionViolatedException
+                ? new AssumptionViolatedException(message, cause)
+                : new Exception(message, cause);
+        identified.setStackTrace(cause.getStackTrace());
+        return identified;
+    }
+}
@@ -0,0 +1,195 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * Provides the rows of a UTF-8 CSV file, each as the array of its fields, parsed straight from the mapped file as the
+ * row is reached.
+ */
+class CsvFileSource extends MappedFileSource {
+    private final boolean header;
+
+    CsvFileSource(Path file, boolean header) {
+        super(file);
+        this.header = header;
+    }
+
+    @Override
+    public Class<?> valueType() {
+        return String[].class;
+    }
+
+    /**
+     * Rows are named by their fields, in brackets and separated by commas. Fields that are empty or contain commas,
+     * quotes, brackets or line breaks are quoted as they would be in the file, so that no two rows share a name.
+     */
+    @Override
+    public String nameOf(Object value) {
+        StringJoiner name = new StringJoiner(", ", "[", "]");
+        for (String field : (String[]) value) {
+            name.add(needsQuotes(field) ? '"' + field.replace("\"", "\"\"") + '"' : field);
+        }
+        return name.toString();
+    }
+
+    private static boolean needsQuotes(String field) {
+        if (field.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            switch (field.charAt(i)) {
+                case ',':
+                case '"':
+                case '[':
+                case ']':
+                case '\n':
+                case '\r':
+                    return true;
+                default:
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<String[]> iterator() {
+        Iterator<String[]> rows = new Rows(size());
+        if (header && rows.hasNext()) {
+            rows.next();
+        }
+        return rows;
+    }
+
+    private class Rows implements Iterator<String[]> {
+        private final long size;
+        private final List<String> fields = new ArrayList<>();
+        private byte[] field = new byte[64];
+        private int fieldLength;
+        private long position = 0;
+        private long windowStart = 0;
+        private int windowSize = WINDOW_SIZE;
+        private MappedByteBuffer window = null;
+        private String[] next = null;
+
+        Rows(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && position < size) {
+                if (window == null || position >= windowStart + window.capacity()) {
+                    remap();
+                }
+                next = parseRow();
+                if (next == null && position < size) {
+                    if (position == windowStart) {
+                        if (windowSize == Integer.MAX_VALUE) {
+                            throw new IllegalStateException("Row at offset " + position + " of " + file()
+                                    + " is too long");
+                        }
+                        windowSize = (int) Math.min(Integer.MAX_VALUE, 2L * windowSize);
+                    }
+                    remap();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] row = next;
+            next = null;
+            return row;
+        }
+
+        private void remap() {
+            windowStart = position;
+            window = map(position, (int) Math.min(windowSize, size - position));
+        }
+
+        /**
+         * Parses the row starting at {@code position} and moves past it, unless it does not end within the window.
+         *
+         * @return the fields of the row, or {@code null} if the window must be enlarged to parse it.
+         */
+        private String[] parseRow() {
+            boolean endOfFile = windowStart + window.capacity() == size;
+            int end = window.capacity();
+            int i = (int) (position - windowStart);
+            fields.clear();
+            fieldLength = 0;
+            boolean fieldStarted = false;
+            boolean quoted = false;
+            while (true) {
+                if (i == end) {
+                    if (!endOfFile) {
+                        return null;
+                    }
+                    if (fields.isEmpty() && !fieldStarted) {
+                        position = size;
+                        return null;
+                    }
+                    break;
+                }
+                byte b = window.get(i++);
+                if (quoted) {
+                    if (b != '"') {
+                        append(b);
+                    } else if (i < end && window.get(i) == '"') {
+                        append(b);
+                        i++;
+                    } else if (i == end && !endOfFile) {
+                        return null;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (b == '\n') {
+                    if (fields.isEmpty() && !fieldStarted) {
+                        position = windowStart + i;
+                        continue;
+                    }
+                    break;
+                } else if (b == '\r' && (i == end || window.get(i) == '\n')) {
+                    if (i == end && !endOfFile) {
+                        return null;
+                    }
+                    continue;
+                } else if (b == ',') {
+                    endField();
+                } else if (b == '"' && fieldLength == 0) {
+                    quoted = true;
+                } else {
+                    append(b);
+                }
+                fieldStarted = true;
+            }
+            endField();
+            position = windowStart + i;
+            return fields.toArray(new String[0]);
+        }
+
+        private void append(byte b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, 2 * field.length);
+            }
+            field[fieldLength++] = b;
+        }
+
+        private void endField() {
+            fields.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+            fieldLength = 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * Schedules test cases with a {@link RunnerScheduler} installed by a build tool or IDE, such as a parallel computer,
+ * so that its choice of threads applies to each case rather than only to each test method.
+ */
+class DelegatingScheduler extends CaseScheduler {
+    private final RunnerScheduler scheduler;
+
+    DelegatingScheduler(RunnerScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void execute(Runnable testCase) {
+        scheduler.schedule(testCase);
+    }
+
+    @Override
+    public void finished() {
+        scheduler.finished();
+    }
+}
@@ -0,0 +1,251 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TestRule;
+import org.junit.runners.model.TestClass;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CollapseCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CoveringArray;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxFailures;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.StatelessTest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Everything needed to run a test of a class, gathered once per class and shared by every test it contains.
+ */
+class ExecutionPlan {
+    private final Class<?> testClass;
+    private final MethodHandle constructor;
+    private final ThreadLocal<Object[]> sharedInstances;
+    private final Set<Reference<Object[]>> heldInstances = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Object[]> abandonedInstances = new ReferenceQueue<>();
+    private final List<MethodHandle> beforeMethods;
+    private final List<MethodHandle> afterMethods;
+    private final List<MethodHandle> ruleAccessors;
+    private final long maxCases;
+    private final CoveringArray coveringArray;
+    private final boolean collapsesCases;
+    private final long maxDescribedCases;
+    private final long maxFailuresPerClass;
+    private final long maxFailuresPerMethod;
+    private final CaseSharding sharding;
+    private final CaseTimings timings;
+    private final boolean notifiesAsynchronously;
+    private final ResultCache resultCache;
+    private final RunHistory history;
+    private final CasePredicate casePredicate;
+
+    ExecutionPlan(TestClass testClass) {
+        this.testClass = testClass.getJavaClass();
+        this.constructor = Handles.forConstructor(testClass.getOnlyConstructor());
+        this.sharedInstances = testClass.getAnnotation(StatelessTest.class) != null
+                ? ThreadLocal.withInitial(() -> new Object[1])
+                : null;
+        this.beforeMethods = unmodifiableList(testClass.getAnnotatedMethods(Before.class)
+                .stream()
+                .map(Handles::forMethod)
+                .collect(toList()));
+        this.afterMethods = unmodifiableList(testClass.getAnnotatedMethods(After.class)
+                .stream()
+                .map(Handles::forMethod)
+                .collect(toList()));
+        this.ruleAccessors = unmodifiableList(Stream.concat(
+                testClass.getAnnotatedFields(Rule.class).stream().map(Handles::forAccessor),
+                testClass.getAnnotatedMethods(Rule.class).stream().map(Handles::forAccessor))
+                .collect(toList()));
+
+        MaxCases limit = testClass.getAnnotation(MaxCases.class);
+        this.maxCases = limit != null
+                ? limit.value()
+                : RunnerProperties.longProperty(RunnerProperties.MAX_CASES, 0);
+        this.coveringArray = testClass.getAnnotation(CoveringArray.class);
+        this.collapsesCases = testClass.getAnnotation(CollapseCases.class) != null
+                || RunnerProperties.booleanProperty(RunnerProperties.COLLAPSE_CASES);
+        this.maxDescribedCases = RunnerProperties.longProperty(RunnerProperties.MAX_DESCRIBED_CASES, 0);
+        MaxFailures maxFailures = testClass.getAnnotation(MaxFailures.class);
+        this.maxFailuresPerClass = maxFailures != null
+                ? maxFailures.value()
+                : RunnerProperties.longProperty(RunnerProperties.MAX_FAILURES_PER_CLASS, 0);
+        this.maxFailuresPerMethod = RunnerProperties.longProperty(RunnerProperties.MAX_FAILURES_PER_METHOD, 0);
+        this.sharding = CaseSharding.fromProperties();
+        this.timings = CaseTimings.fromProperties(testClass.getName());
+        this.notifiesAsynchronously = RunnerProperties.booleanProperty(RunnerProperties.ASYNC_NOTIFICATIONS);
+        this.resultCache = ResultCache.forClass(this.testClass);
+        this.history = RunHistory.forClass(this.testClass);
+        this.casePredicate = CasePredicate.fromProperties();
+    }
+
+    Class<?> testClass() {
+        return testClass;
+    }
+
+    /**
+     * @return a new instance of the test class or, for a {@link StatelessTest}, the instance shared by the tests
+     * running on the calling thread.
+     */
+    Object testInstance() throws Throwable {
+        if (sharedInstances == null) {
+            return (Object) constructor.invokeExact();
+        }
+        Object[] holder = sharedInstances.get();
+        if (holder[0] == null) {
+            holder[0] = (Object) constructor.invokeExact();
+            hold(holder);
+        }
+        return holder[0];
+    }
+
+    /**
+     * Drops the instances shared by the tests of a {@link StatelessTest}, so that they are not kept by the threads
+     * that ran them once the class has run.
+     */
+    void releaseInstances() {
+        for (Reference<Object[]> reference : heldInstances) {
+            Object[] holder = reference.get();
+            if (holder != null) {
+                holder[0] = null;
+            }
+        }
+        heldInstances.clear();
+    }
+
+    /**
+     * Tracks the instance held by the calling thread in {@code holder}, forgetting those of threads that have ended.
+     */
+    private void hold(Object[] holder) {
+        Reference<?> abandoned;
+        while ((abandoned = abandonedInstances.poll()) != null) {
+            heldInstances.remove(abandoned);
+        }
+        heldInstances.add(new WeakReference<>(holder, abandonedInstances));
+    }
+
+    List<MethodHandle> beforeMethods() {
+        return beforeMethods;
+    }
+
+    List<MethodHandle> afterMethods() {
+        return afterMethods;
+    }
+
+    /**
+     * @return the number of cases to run for each parameterised test method, or zero if unlimited.
+     */
+    long maxCases() {
+        return maxCases;
+    }
+
+    /**
+     * @return the covering array to use for parameterised test methods of the class, or {@code null} to run every
+     * combination.
+     */
+    CoveringArray coveringArray() {
+        return coveringArray;
+    }
+
+    /**
+     * @return whether the cases of parameterised test methods of the class are reported as a single test.
+     */
+    boolean collapsesCases() {
+        return collapsesCases;
+    }
+
+    /**
+     * @return the number of the cases of each parameterised test method whose descriptions are kept as children of
+     * its own once generated, for tools showing them in a tree, or zero to keep none.
+     */
+    long maxDescribedCases() {
+        return maxDescribedCases;
+    }
+
+    /**
+     * @return the number of failures of the tests of the class after which the rest are skipped, or zero if
+     * unlimited.
+     */
+    long maxFailuresPerClass() {
+        return maxFailuresPerClass;
+    }
+
+    /**
+     * @return the number of failures of the cases of a parameterised test method after which the rest are skipped,
+     * or zero if unlimited.
+     */
+    long maxFailuresPerMethod() {
+        return maxFailuresPerMethod;
+    }
+
+    /**
+     * @return the selection of the cases of the class to be run by this JVM.
+     */
+    CaseSharding sharding() {
+        return sharding;
+    }
+
+    /**
+     * @return the timings recorded for the tests of the class, or {@code null} if they are not timed.
+     */
+    CaseTimings timings() {
+        return timings;
+    }
+
+    /**
+     * @return whether listeners are notified of the progress of tests on a thread of their own.
+     */
+    boolean notifiesAsynchronously() {
+        return notifiesAsynchronously;
+    }
+
+    /**
+     * @return the record of the tests of the class that passed in earlier runs, or {@code null} if not kept.
+     */
+    ResultCache resultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @return the outcomes of earlier runs of the tests of the class, or {@code null} if not kept.
+     */
+    RunHistory history() {
+        return history;
+    }
+
+    /**
+     * @return the predicate selecting the cases of parameterised test methods to run, or {@code null} to run all.
+     */
+    CasePredicate casePredicate() {
+        return casePredicate;
+    }
+
+    boolean hasRules() {
+        return !ruleAccessors.isEmpty();
+    }
+
+    /**
+     * @return the rules of {@code testInstance}, fields before methods, skipping any value that is not a
+     * {@link TestRule}.
+     */
+    List<TestRule> rules(Object testInstance) throws Throwable {
+        List<TestRule> rules = new ArrayList<>(ruleAccessors.size());
+        for (MethodHandle accessor : ruleAccessors) {
+            Object value = (Object) accessor.invokeExact(testInstance);
+            if (value instanceof TestRule) {
+                rules.add((TestRule) value);
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,61 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+abstract class ExecutorScheduler extends CaseScheduler {
+    private final int capacity;
+    private final Semaphore inFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private ExecutorService executor = null;
+
+    /**
+     * @param capacity the maximum number of cases that may be queued or running at once. Dispatch blocks once
+     *                 this is reached.
+     */
+    ExecutorScheduler(int capacity) {
+        this.capacity = capacity;
+        this.inFlight = new Semaphore(capacity);
+    }
+
+    abstract ExecutorService newExecutor();
+
+    @Override
+    public void execute(Runnable testCase) {
+        inFlight.acquireUninterruptibly();
+        try {
+            executor().execute(() -> {
+                try {
+                    testCase.run();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void finished() {
+        inFlight.acquireUninterruptibly(capacity);
+        inFlight.release(capacity);
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        rethrow(failure.getAndSet(null));
+    }
+
+    private ExecutorService executor() {
+        if (executor == null) {
+            executor = newExecutor();
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,236 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Provides the values returned by a static factory method, calling it each time they are iterated from the first.
+ * The iterators returned close the stream, or closeable iterator, they were created from once it is exhausted or
+ * they are closed themselves.
+ * <p>
+ * The values of a cached factory method are instead generated in full once and kept in the {@link ProviderCache} of
+ * the class declaring it, keyed by the method, which takes no arguments.
+ */
+class FactoryMethodSource implements ParameterSource {
+    private final Method method;
+    private final Class<?> valueType;
+    private final boolean cached;
+
+    private FactoryMethodSource(Method method, Class<?> valueType, boolean cached) {
+        this.method = method;
+        this.valueType = valueType;
+        this.cached = cached;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code type} has no suitable method named {@code name}.
+     */
+    static ParameterSource forMethod(Class<?> type, String name, boolean cached) {
+        Method method;
+        try {
+            method = type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Factory method " + name + " of " + type.getName()
+                    + " should be public and take no arguments", e);
+        }
+        if (!Modifier.isStatic(method.getModifiers())) {
+            throw new IllegalArgumentException("Factory method " + name + " of " + type.getName()
+                    + " should be static");
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == IntStream.class) {
+            return new Ints(method, cached);
+        }
+        if (returnType != Stream.class && returnType != Iterator.class && returnType != Spliterator.class) {
+            throw new IllegalArgumentException("Factory method " + name + " of " + type.getName()
+                    + " should return a Stream, IntStream, Iterator or Spliterator");
+        }
+        return new FactoryMethodSource(method, elementType(method.getGenericReturnType()), cached);
+    }
+
+    @Override
+    public Class<?> valueType() {
+        return valueType;
+    }
+
+    /**
+     * Generated values are only indexed once cached, as otherwise there may be too many to hold in memory.
+     */
+    @Override
+    public boolean isIndexable() {
+        return cached;
+    }
+
+    @Override
+    public Iterator<?> iterator() {
+        if (cached) {
+            return ProviderCache.forClass(method.getDeclaringClass())
+                    .values(method, this::generateAll, List::size)
+                    .iterator();
+        }
+        return generate();
+    }
+
+    private List<?> generateAll() {
+        List<Object> values = new ArrayList<>();
+        generate().forEachRemaining(values::add);
+        return unmodifiableList(values);
+    }
+
+    private Iterator<?> generate() {
+        Object values = invoke(method);
+        if (values instanceof Stream) {
+            Stream<?> stream = (Stream<?>) values;
+            return new ClosingIterator<>(stream.iterator(), stream);
+        }
+        if (values instanceof Spliterator) {
+            return Spliterators.iterator((Spliterator<?>) values);
+        }
+        Iterator<?> iterator = (Iterator<?>) values;
+        return new ClosingIterator<>(iterator, iterator instanceof AutoCloseable ? (AutoCloseable) iterator : null);
+    }
+
+    private static Object invoke(Method method) {
+        try {
+            Object values = method.invoke(null);
+            if (values == null) {
+                throw new IllegalStateException("Factory method " + method.getName() + " returned null");
+            }
+            return values;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not call factory method " + method.getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Factory method " + method.getName() + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return the class of the elements of {@code type}, a {@code Stream}, {@code Iterator} or {@code Spliterator},
+     * or {@code Object} if it is raw.
+     */
+    private static Class<?> elementType(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return Object.class;
+        }
+        Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+        if (elementType instanceof WildcardType) {
+            elementType = ((WildcardType) elementType).getUpperBounds()[0];
+        }
+        if (elementType instanceof ParameterizedType) {
+            elementType = ((ParameterizedType) elementType).getRawType();
+        }
+        return elementType instanceof Class ? (Class<?>) elementType : Object.class;
+    }
+
+    /**
+     * The values of a factory method returning an {@code IntStream}, which are passed to {@code int} parameters
+     * without boxing.
+     */
+    private static class Ints implements IntParameterSource {
+        private final Method method;
+        private final boolean cached;
+
+        Ints(Method method, boolean cached) {
+            this.method = method;
+            this.cached = cached;
+        }
+
+        @Override
+        public boolean isIndexable() {
+            return cached;
+        }
+
+        @Override
+        public PrimitiveIterator.OfInt intIterator() {
+            if (cached) {
+                int[] values = ProviderCache.forClass(method.getDeclaringClass()).values(method, () -> {
+                    try (IntStream stream = (IntStream) invoke(method)) {
+                        return stream.toArray();
+                    }
+                }, array -> array.length);
+                return Arrays.stream(values).iterator();
+            }
+            IntStream stream = (IntStream) invoke(method);
+            PrimitiveIterator.OfInt values = stream.iterator();
+            return new ClosingIntIterator(values, stream);
+        }
+    }
+
+    private static class ClosingIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Iterator<T> values;
+        private AutoCloseable closeable;
+
+        ClosingIterator(Iterator<T> values, AutoCloseable closeable) {
+            this.values = values;
+            this.closeable = closeable;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (values.hasNext()) {
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public T next() {
+            return values.next();
+        }
+
+        @Override
+        public void close() {
+            AutoCloseable closeable = this.closeable;
+            this.closeable = null;
+            ParameterSource.close(closeable);
+        }
+    }
+
+    private static class ClosingIntIterator implements PrimitiveIterator.OfInt, AutoCloseable {
+        private final PrimitiveIterator.OfInt values;
+        private AutoCloseable closeable;
+
+        ClosingIntIterator(PrimitiveIterator.OfInt values, AutoCloseable closeable) {
+            this.values = values;
+            this.closeable = closeable;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (values.hasNext()) {
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public int nextInt() {
+            return values.nextInt();
+        }
+
+        @Override
+        public void close() {
+            AutoCloseable closeable = this.closeable;
+            this.closeable = null;
+            ParameterSource.close(closeable);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the failures reported while running the tests of a class or the cases of a method. Once the budget is
+ * spent, the remaining tests are reported as ignored without creating test instances for them.
+ * <p>
+ * A budget is passed down to tests by the {@link RunNotifier} counting failures against it. The budget of a method
+ * is nested in that of its class, whose notifier also sees the method's failures, so is spent once either is.
+ */
+final class FailureBudget {
+    private static final FailureBudget UNLIMITED = new FailureBudget(null, 0);
+
+    private final FailureBudget parent;
+    private final long maxFailures;
+    private final AtomicLong failures = new AtomicLong();
+
+    private FailureBudget(FailureBudget parent, long maxFailures) {
+        this.parent = parent;
+        this.maxFailures = maxFailures;
+    }
+
+    /**
+     * @return the budget counting failures reported to {@code notifier}, if any.
+     */
+    static FailureBudget of(RunNotifier notifier) {
+        return notifier instanceof CountingNotifier ? ((CountingNotifier) notifier).budget : UNLIMITED;
+    }
+
+    /**
+     * @param maxFailures the number of failures after which remaining tests are skipped, or zero if unlimited.
+     */
+    FailureBudget nested(long maxFailures) {
+        return new FailureBudget(this, maxFailures);
+    }
+
+    boolean isSpent() {
+        return maxFailures > 0 && failures.get() >= maxFailures || parent != null && parent.isSpent();
+    }
+
+    /**
+     * @return {@code notifier}, counting the failures reported to it against this budget.
+     */
+    RunNotifier counting(RunNotifier notifier) {
+        return isUnlimited() ? notifier : new CountingNotifier(notifier, this);
+    }
+
+    private boolean isUnlimited() {
+        return maxFailures == 0 && (parent == null || parent.isUnlimited());
+    }
+
+    private void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    private static class CountingNotifier extends RunNotifier {
+        private final RunNotifier notifier;
+        private final FailureBudget budget;
+
+        CountingNotifier(RunNotifier notifier, FailureBudget budget) {
+            this.notifier = notifier;
+            this.budget = budget;
+        }
+
+        @Override
+        public void addListener(RunListener listener) {
+            notifier.addListener(listener);
+        }
+
+        @Override
+        public void addFirstListener(RunListener listener) {
+            notifier.addFirstListener(listener);
+        }
+
+        @Override
+        public void removeListener(RunListener listener) {
+            notifier.removeListener(listener);
+        }
+
+        @Override
+        public void fireTestRunStarted(Description description) {
+            notifier.fireTestRunStarted(description);
+        }
+
+        @Override
+        public void fireTestRunFinished(Result result) {
+            notifier.fireTestRunFinished(result);
+        }
+
+        @Override
+        public void fireTestStarted(Description description) throws StoppedByUserException {
+            notifier.fireTestStarted(description);
+        }
+
+        @Override
+        public void fireTestFailure(Failure failure) {
+            budget.recordFailure();
+            notifier.fireTestFailure(failure);
+        }
+
+        @Override
+        public void fireTestAssumptionFailed(Failure failure) {
+            notifier.fireTestAssumptionFailed(failure);
+        }
+
+        @Override
+        public void fireTestIgnored(Description description) {
+            notifier.fireTestIgnored(description);
+        }
+
+        @Override
+        public void fireTestFinished(Description description) {
+            notifier.fireTestFinished(description);
+        }
+
+        @Override
+        public void pleaseStop() {
+            notifier.pleaseStop();
+        }
+    }
+}
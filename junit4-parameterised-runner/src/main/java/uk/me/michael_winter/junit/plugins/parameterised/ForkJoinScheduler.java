@@ -0,0 +1,20 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+class ForkJoinScheduler extends ExecutorScheduler {
+    private static final int CASES_IN_FLIGHT_PER_THREAD = 4;
+
+    private final int parallelism;
+
+    ForkJoinScheduler(int parallelism) {
+        super(parallelism * CASES_IN_FLIGHT_PER_THREAD);
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    ExecutorService newExecutor() {
+        return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+}
@@ -0,0 +1,90 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runners.model.FrameworkField;
+import org.junit.runners.model.FrameworkMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Resolves method handles for members of a test class.
+ * <p>
+ * Handles are adapted to take the test instance as an {@code Object} so that they can be called with
+ * {@link MethodHandle#invokeExact}, avoiding the argument array and exception wrapping of reflective calls. Static
+ * members ignore the instance. Members which cannot be accessed fail when invoked, as they would reflectively.
+ */
+final class Handles {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType CONSTRUCTOR_TYPE = methodType(Object.class);
+    private static final MethodType ACCESSOR_TYPE = methodType(Object.class, Object.class);
+
+    private Handles() {
+    }
+
+    /**
+     * @return a handle of type {@code (Object, parameters...)void} that invokes {@code method} on the instance given
+     * as its first argument.
+     */
+    static MethodHandle forMethod(FrameworkMethod method) {
+        MethodType type = methodType(void.class, method.getMethod().getParameterTypes())
+                .insertParameterTypes(0, Object.class);
+        try {
+            return adapt(LOOKUP.unreflect(method.getMethod()), method.getMethod(), type);
+        } catch (IllegalAccessException e) {
+            return throwing(e, type);
+        }
+    }
+
+    /**
+     * @return a handle of type {@code (Object)Object} that returns the result of invoking {@code method} on the
+     * instance given as its argument.
+     */
+    static MethodHandle forAccessor(FrameworkMethod method) {
+        try {
+            return adapt(LOOKUP.unreflect(method.getMethod()), method.getMethod(), ACCESSOR_TYPE);
+        } catch (IllegalAccessException e) {
+            return throwing(e, ACCESSOR_TYPE);
+        }
+    }
+
+    /**
+     * @return a handle of type {@code (Object)Object} that reads {@code field} from the instance given as its
+     * argument.
+     */
+    static MethodHandle forAccessor(FrameworkField field) {
+        try {
+            return adapt(LOOKUP.unreflectGetter(field.getField()), field.getField(), ACCESSOR_TYPE);
+        } catch (IllegalAccessException e) {
+            return throwing(e, ACCESSOR_TYPE);
+        }
+    }
+
+    /**
+     * @return a handle of type {@code ()Object} that creates a new instance using {@code constructor}.
+     */
+    static MethodHandle forConstructor(Constructor<?> constructor) {
+        try {
+            return LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException e) {
+            return throwing(e, CONSTRUCTOR_TYPE);
+        }
+    }
+
+    private static MethodHandle adapt(MethodHandle handle, Member member, MethodType type) {
+        if (Modifier.isStatic(member.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    private static MethodHandle throwing(Throwable e, MethodType type) {
+        MethodHandle thrower = MethodHandles.throwException(type.returnType(), e.getClass()).bindTo(e);
+        return MethodHandles.dropArguments(thrower, 0, type.parameterList());
+    }
+}
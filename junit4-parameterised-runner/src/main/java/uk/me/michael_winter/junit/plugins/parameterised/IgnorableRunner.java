@@ -1,7 +1,15 @@
 package uk.me.michael_winter.junit.plugins.parameterised;
 
 import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
 
 abstract class IgnorableRunner extends Runner {
     abstract boolean isIgnored();
+
+    /**
+     * Runs this runner's test cases using {@code scheduler}, which may still be executing them on return.
+     */
+    void run(RunNotifier notifier, CaseScheduler scheduler) {
+        scheduler.execute(() -> run(notifier));
+    }
 }
@@ -0,0 +1,37 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Generates the values of an array, such as that of {@link
+ * uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues}. The array is read from the
+ * annotation once, as each call to the annotation's {@code value()} returns a new copy.
+ */
+class IntArraySource implements IntParameterSource {
+    private final int[] values;
+
+    IntArraySource(int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return values[index++];
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * A {@link ParameterSource} of {@code int} values, which can be generated and passed to {@code int} parameters
+ * without boxing.
+ */
+interface IntParameterSource extends ParameterSource {
+    @Override
+    default Class<?> valueType() {
+        return int.class;
+    }
+
+    @Override
+    default PrimitiveIterator.OfInt iterator() {
+        return intIterator();
+    }
+
+    PrimitiveIterator.OfInt intIterator();
+
+    /**
+     * @return whether {@code value} is among the values generated.
+     */
+    default boolean contains(int value) {
+        PrimitiveIterator.OfInt values = intIterator();
+        try {
+            while (values.hasNext()) {
+                if (values.nextInt() == value) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            ParameterSource.close(values);
+        }
+    }
+}
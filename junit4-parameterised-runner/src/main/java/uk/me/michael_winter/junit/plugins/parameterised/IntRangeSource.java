@@ -0,0 +1,53 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Generates the values of a {@link uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange}
+ * as they are iterated, from its start up to but excluding its end. Nothing is held for values already generated,
+ * so ranges of any size can be iterated, and membership of a value is found arithmetically.
+ */
+class IntRangeSource implements IntParameterSource {
+    private final int from;
+    private final int to;
+    private final int step;
+
+    IntRangeSource(int from, int to, int step) {
+        if (step == 0) {
+            throw new IllegalArgumentException("Range step should not be zero");
+        }
+
+        this.from = from;
+        this.to = to;
+        this.step = step;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        long offset = (long) value - from;
+        return (step > 0 ? value >= from && value < to : value <= from && value > to) && offset % step == 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private long next = from;
+
+            @Override
+            public boolean hasNext() {
+                return step > 0 ? next < to : next > to;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int value = (int) next;
+                next += step;
+                return value;
+            }
+        };
+    }
+}
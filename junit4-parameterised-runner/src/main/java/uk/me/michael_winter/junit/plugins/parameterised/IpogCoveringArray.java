@@ -0,0 +1,250 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A covering array of strength t over the values of several parameters, built with the deterministic IPOG
+ * (In-Parameter-Order-General) strategy.
+ * <p>
+ * The array starts as every combination of the first t parameters. Each further parameter is added by choosing,
+ * for every existing row, the value which covers the most combinations not yet covered, and then adding rows for
+ * any combinations that remain. Rows are built from value indices and only mapped to values as they are iterated.
+ * <p>
+ * The values of every parameter are held in memory, so their sources must be {@link ParameterSource#isIndexable()
+ * indexable}.
+ */
+class IpogCoveringArray implements Iterable<Object[]> {
+    private static final int DONT_CARE = -1;
+
+    private final List<List<?>> values;
+    private final int[] sizes;
+    private final List<int[]> rows;
+
+    IpogCoveringArray(List<ParameterSource> sources, int strength) {
+        if (strength < 1) {
+            throw new IllegalArgumentException("Covering array strength should be positive");
+        }
+        if (!sources.stream().allMatch(ParameterSource::isIndexable)) {
+            throw new IllegalArgumentException(
+                    "Covering array parameters should have values that can be held in memory");
+        }
+
+        this.values = unmodifiableList(sources.stream()
+                .map(IpogCoveringArray::valuesOf)
+                .collect(toList()));
+        this.sizes = values.stream()
+                .mapToInt(List::size)
+                .toArray();
+        this.rows = Arrays.stream(sizes).anyMatch(size -> size == 0)
+                ? new ArrayList<>()
+                : build(Math.min(strength, sizes.length));
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    @Override
+    public Iterator<Object[]> iterator() {
+        return rows.stream()
+                .map(this::toValues)
+                .iterator();
+    }
+
+    private static List<?> valuesOf(ParameterSource source) {
+        List<Object> values = new ArrayList<>();
+        Iterator<?> iterator = source.iterator();
+        try {
+            iterator.forEachRemaining(values::add);
+        } finally {
+            ParameterSource.close(iterator);
+        }
+        return values;
+    }
+
+    private Object[] toValues(int[] row) {
+        Object[] arguments = new Object[row.length];
+        for (int i = 0; i < row.length; i++) {
+            arguments[i] = values.get(i).get(row[i]);
+        }
+        return arguments;
+    }
+
+    private List<int[]> build(int strength) {
+        List<int[]> rows = new ArrayList<>();
+        int[] row = new int[sizes.length];
+        Arrays.fill(row, DONT_CARE);
+        addEveryCombination(rows, row, 0, strength);
+
+        for (int parameter = strength; parameter < sizes.length; parameter++) {
+            new Extension(rows, parameter, strength).apply();
+        }
+
+        for (int[] each : rows) {
+            for (int i = 0; i < each.length; i++) {
+                if (each[i] == DONT_CARE) {
+                    each[i] = 0;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void addEveryCombination(List<int[]> rows, int[] row, int parameter, int strength) {
+        if (parameter == strength) {
+            rows.add(row.clone());
+            return;
+        }
+        for (int value = 0; value < sizes[parameter]; value++) {
+            row[parameter] = value;
+            addEveryCombination(rows, row, parameter + 1, strength);
+        }
+    }
+
+    /**
+     * Adds a parameter to the array, tracking which combinations of its values with those of every
+     * {@code strength - 1} earlier parameters remain uncovered.
+     */
+    private class Extension {
+        private final List<int[]> rows;
+        private final int parameter;
+        private final List<int[]> subsets = new ArrayList<>();
+        private final List<boolean[]> uncovered = new ArrayList<>();
+
+        Extension(List<int[]> rows, int parameter, int strength) {
+            this.rows = rows;
+            this.parameter = parameter;
+
+            addSubsets(new int[strength - 1], 0, 0);
+            for (int[] subset : subsets) {
+                int combinations = sizes[parameter];
+                for (int i : subset) {
+                    combinations *= sizes[i];
+                }
+                boolean[] flags = new boolean[combinations];
+                Arrays.fill(flags, true);
+                uncovered.add(flags);
+            }
+        }
+
+        private void addSubsets(int[] subset, int position, int first) {
+            if (position == subset.length) {
+                subsets.add(subset.clone());
+                return;
+            }
+            for (int i = first; i < parameter; i++) {
+                subset[position] = i;
+                addSubsets(subset, position + 1, i + 1);
+            }
+        }
+
+        void apply() {
+            growHorizontally();
+            growVertically();
+        }
+
+        private void growHorizontally() {
+            for (int[] row : rows) {
+                int bestValue = 0;
+                int bestCount = -1;
+                for (int value = 0; value < sizes[parameter]; value++) {
+                    int count = 0;
+                    for (int s = 0; s < subsets.size(); s++) {
+                        int index = index(subsets.get(s), row, value);
+                        if (index >= 0 && uncovered.get(s)[index]) {
+                            ++count;
+                        }
+                    }
+                    if (count > bestCount) {
+                        bestValue = value;
+                        bestCount = count;
+                    }
+                }
+                if (bestCount == 0) {
+                    continue;
+                }
+                row[parameter] = bestValue;
+                for (int s = 0; s < subsets.size(); s++) {
+                    int index = index(subsets.get(s), row, bestValue);
+                    if (index >= 0) {
+                        uncovered.get(s)[index] = false;
+                    }
+                }
+            }
+        }
+
+        private void growVertically() {
+            for (int s = 0; s < subsets.size(); s++) {
+                int[] subset = subsets.get(s);
+                boolean[] flags = uncovered.get(s);
+                for (int index = 0; index < flags.length; index++) {
+                    if (flags[index]) {
+                        cover(subset, decode(subset, index));
+                        flags[index] = false;
+                    }
+                }
+            }
+        }
+
+        private void cover(int[] subset, int[] tuple) {
+            for (int[] row : rows) {
+                if (isCompatible(row, subset, tuple)) {
+                    assign(row, subset, tuple);
+                    return;
+                }
+            }
+            int[] row = new int[sizes.length];
+            Arrays.fill(row, DONT_CARE);
+            assign(row, subset, tuple);
+            rows.add(row);
+        }
+
+        private boolean isCompatible(int[] row, int[] subset, int[] tuple) {
+            for (int i = 0; i < subset.length; i++) {
+                if (row[subset[i]] != DONT_CARE && row[subset[i]] != tuple[i]) {
+                    return false;
+                }
+            }
+            return row[parameter] == DONT_CARE || row[parameter] == tuple[subset.length];
+        }
+
+        private void assign(int[] row, int[] subset, int[] tuple) {
+            for (int i = 0; i < subset.length; i++) {
+                row[subset[i]] = tuple[i];
+            }
+            row[parameter] = tuple[subset.length];
+        }
+
+        /**
+         * @return the position of the combination of {@code row}'s values of {@code subset} with {@code value}, or
+         * -1 if the row has no value for a parameter in the subset.
+         */
+        private int index(int[] subset, int[] row, int value) {
+            int index = 0;
+            for (int i : subset) {
+                if (row[i] == DONT_CARE) {
+                    return -1;
+                }
+                index = index * sizes[i] + row[i];
+            }
+            return index * sizes[parameter] + value;
+        }
+
+        private int[] decode(int[] subset, int index) {
+            int[] tuple = new int[subset.length + 1];
+            tuple[subset.length] = index % sizes[parameter];
+            index /= sizes[parameter];
+            for (int i = subset.length - 1; i >= 0; i--) {
+                tuple[i] = index % sizes[subset[i]];
+                index /= sizes[subset[i]];
+            }
+            return tuple;
+        }
+    }
+}
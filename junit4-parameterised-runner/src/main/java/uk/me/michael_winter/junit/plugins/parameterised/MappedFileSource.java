@@ -0,0 +1,56 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * A {@link ParameterSource} of the rows of a file, read through windows of it mapped into memory as iteration reaches
+ * them. Mappings are released by the garbage collector once no row refers to them, so heap use does not grow with
+ * the size of the file.
+ */
+abstract class MappedFileSource implements ParameterSource {
+    static final int WINDOW_SIZE = 64 << 20;
+
+    private final Path file;
+
+    MappedFileSource(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Files are not indexed, as that would mean holding every row in memory.
+     */
+    @Override
+    public boolean isIndexable() {
+        return false;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long size() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read size of " + file, e);
+        }
+    }
+
+    /**
+     * @return a read-only mapping of the {@code length} bytes of the file from {@code position}.
+     */
+    MappedByteBuffer map(long position, int length) {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + file, e);
+        }
+    }
+}
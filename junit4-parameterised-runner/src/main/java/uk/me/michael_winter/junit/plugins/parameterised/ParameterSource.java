@@ -0,0 +1,48 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.Iterator;
+
+/**
+ * Lazily generates the values of a test method parameter.
+ */
+interface ParameterSource {
+    /**
+     * @return the type of every value generated.
+     */
+    Class<?> valueType();
+
+    /**
+     * @return a new iterator over the values, starting again from the first.
+     */
+    Iterator<?> iterator();
+
+    /**
+     * @return how {@code value} is shown in the names of cases.
+     */
+    default String nameOf(Object value) {
+        return String.valueOf(value);
+    }
+
+    /**
+     * @return whether the values may be held in memory to find them by name.
+     */
+    default boolean isIndexable() {
+        return true;
+    }
+
+    /**
+     * Closes {@code values}, such as an iterator over a source whose values are held open until closed, if they
+     * can be closed.
+     */
+    static void close(Object values) {
+        if (values instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) values).close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not close parameter values", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.FileFormat;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterFactory;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterFileRows;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntRange;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterIntValues;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ParameterValuesProvider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Parameter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Creates the {@link ParameterSource} for a test method parameter from the annotation providing its values.
+ */
+final class ParameterSources {
+    private ParameterSources() {
+    }
+
+    static boolean isProvided(Parameter parameter) {
+        return provider(parameter).isPresent();
+    }
+
+    /**
+     * @return whether the source of the values of {@code parameter} would be {@link ParameterSource#isIndexable()
+     * indexable}, decided from its annotation alone, without looking up the files or methods it names.
+     */
+    static boolean isIndexable(Parameter parameter) {
+        Annotation provider = provider(parameter).orElse(null);
+        if (provider instanceof ParameterFileRows) {
+            return false;
+        }
+        return !(provider instanceof ParameterFactory) || ((ParameterFactory) provider).cached();
+    }
+
+    static ParameterSource forParameter(Parameter parameter) {
+        Annotation provider = provider(parameter)
+                .orElseThrow(() -> new IllegalArgumentException("Parameter " + parameter.getName()
+                        + " should be annotated with a values provider"));
+
+        if (provider instanceof ParameterIntValues) {
+            return new IntArraySource(((ParameterIntValues) provider).value());
+        }
+        if (provider instanceof ParameterIntRange) {
+            ParameterIntRange range = (ParameterIntRange) provider;
+            return new IntRangeSource(range.from(), range.to(), range.step());
+        }
+        if (provider instanceof ParameterFactory) {
+            ParameterFactory factory = (ParameterFactory) provider;
+            return FactoryMethodSource.forMethod(factory.type() != void.class
+                    ? factory.type()
+                    : parameter.getDeclaringExecutable().getDeclaringClass(), factory.value(), factory.cached());
+        }
+        if (provider instanceof ParameterFileRows) {
+            ParameterFileRows rows = (ParameterFileRows) provider;
+            Path file = file(rows.value(), parameter.getDeclaringExecutable().getDeclaringClass());
+            return rows.format() == FileFormat.BINARY
+                    ? new BinaryFileSource(file, rows.recordSize(),
+                    rows.littleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN)
+                    : new CsvFileSource(file, rows.header());
+        }
+        throw new IllegalArgumentException("Unsupported values provider @"
+                + provider.annotationType().getSimpleName());
+    }
+
+    /**
+     * @return the file at {@code path} relative to the working directory or, failing that, on the class path of
+     * {@code testClass}.
+     */
+    private static Path file(String path, Class<?> testClass) {
+        Path file = Paths.get(path);
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        URL resource = testClass.getClassLoader().getResource(path);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Invalid path to file " + path, e);
+            }
+        }
+        throw new IllegalArgumentException("File " + path + " should exist");
+    }
+
+    private static Optional<Annotation> provider(Parameter parameter) {
+        return Arrays.stream(parameter.getAnnotations())
+                .filter(annotation -> annotation.annotationType().isAnnotationPresent(ParameterValuesProvider.class))
+                .findFirst();
+    }
+}
@@ -0,0 +1,54 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import java.lang.invoke.MethodHandle;
+
+class ParameterisedCaseRunner extends TestCaseRunner {
+    private final ParameterisedTestRunner test;
+    private final MethodHandle methodHandle;
+    private final Object[] arguments;
+
+    /**
+     * @param methodHandle a handle of type {@code (Object, Object[])void} invoking the test method.
+     */
+    ParameterisedCaseRunner(ExecutionPlan plan, ParameterisedTestRunner test, MethodHandle methodHandle,
+                            Object[] arguments) {
+        super(plan);
+        this.test = test;
+        this.methodHandle = methodHandle;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public Description getDescription() {
+        return test.describeCase(arguments);
+    }
+
+    @Override
+    boolean isIgnored() {
+        return false;
+    }
+
+    @Override
+    FrameworkMethod method() {
+        return test.method();
+    }
+
+    @Override
+    Object[] arguments() {
+        return arguments;
+    }
+
+    @Override
+    Statement methodInvoker(Object testInstance) {
+        return new ArgumentsInvoker(methodHandle, testInstance, arguments);
+    }
+
+    @Override
+    void invokeTest(Object testInstance) throws Throwable {
+        methodHandle.invokeExact(testInstance, arguments);
+    }
+}
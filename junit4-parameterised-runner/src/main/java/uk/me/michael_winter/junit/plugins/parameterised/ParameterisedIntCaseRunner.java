@@ -0,0 +1,56 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Runs a case of a test method taking a single {@code int}, passing its value without boxing.
+ */
+class ParameterisedIntCaseRunner extends TestCaseRunner {
+    private final ParameterisedTestRunner test;
+    private final MethodHandle methodHandle;
+    private final int value;
+
+    /**
+     * @param methodHandle a handle of type {@code (Object, int)void} invoking the test method.
+     */
+    ParameterisedIntCaseRunner(ExecutionPlan plan, ParameterisedTestRunner test, MethodHandle methodHandle, int value) {
+        super(plan);
+        this.test = test;
+        this.methodHandle = methodHandle;
+        this.value = value;
+    }
+
+    @Override
+    public Description getDescription() {
+        return test.describeCase(value);
+    }
+
+    @Override
+    boolean isIgnored() {
+        return false;
+    }
+
+    @Override
+    FrameworkMethod method() {
+        return test.method();
+    }
+
+    @Override
+    Object[] arguments() {
+        return new Object[]{value};
+    }
+
+    @Override
+    Statement methodInvoker(Object testInstance) {
+        return new IntArgumentInvoker(methodHandle, testInstance, value);
+    }
+
+    @Override
+    void invokeTest(Object testInstance) throws Throwable {
+        methodHandle.invokeExact(testInstance, value);
+    }
+}
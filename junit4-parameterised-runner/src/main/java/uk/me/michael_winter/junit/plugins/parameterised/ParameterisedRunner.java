@@ -2,38 +2,57 @@ package uk.me.michael_winter.junit.plugins.parameterised;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.RunRules;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sorter;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.ParentRunner;
 import org.junit.runners.model.FrameworkField;
-import org.junit.runners.model.FrameworkMember;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+import org.junit.runners.model.Statement;
+import org.junit.runners.model.TestClass;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CoveringArray;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.Execution;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.ExecutionMode;
 
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 
 public class ParameterisedRunner extends ParentRunner<IgnorableRunner> {
-    private static final Predicate<FrameworkMember> IS_PUBLIC_MEMBER = FrameworkMember::isPublic;
-    private static final Predicate<FrameworkMember> IS_STATIC_MEMBER = FrameworkMember::isStatic;
-    private static final Predicate<FrameworkMember> IS_NOT_PUBLIC_MEMBER = IS_PUBLIC_MEMBER.negate();
-    private static final Predicate<FrameworkMember> HAS_TIMEOUT_PARAMETER
-            = member -> member.getAnnotation(Test.class).timeout() != 0;
-    private static final Predicate<FrameworkMember> HAS_EXPECTED_PARAMETER
-            = member -> member.getAnnotation(Test.class).expected() != Test.None.class;
-    private static final Predicate<FrameworkField> IS_TEST_RULE_FIELD
-            = field -> !TestRule.class.isAssignableFrom(field.getType());
-    private static final Predicate<FrameworkMethod> IS_TEST_RULE_METHOD
-            = method -> !TestRule.class.isAssignableFrom(method.getReturnType());
+    private static final ClassValue<TestClass> TEST_CLASSES = new ClassValue<TestClass>() {
+        @Override
+        protected TestClass computeValue(Class<?> type) {
+            return new TestClass(type);
+        }
+    };
+    private static final Map<Class<?>, List<Throwable>> INITIALIZATION_ERRORS = synchronizedMap(new WeakHashMap<>());
 
+    private final ExecutionPlan plan;
     private final List<IgnorableRunner> runners;
+    private volatile CaseScheduler scheduler;
+    private volatile Description description;
 
     /**
      * Constructs a new {@code ParameterisedRunner} that will run {@code testClass}
@@ -43,9 +62,79 @@ public class ParameterisedRunner extends ParentRunner<IgnorableRunner> {
     public ParameterisedRunner(Class<?> testClass) throws InitializationError {
         super(testClass);
 
+        plan = new ExecutionPlan(getTestClass());
         runners = testMethods()
+                .filter(this::isLocalOrParameterised)
                 .map(this::toRunner)
                 .collect(toList());
+        setScheduler(defaultScheduler());
+        if (plan.history() != null) {
+            sort(plan.history().sorter(scheduler.isConcurrent()));
+        }
+    }
+
+    /**
+     * Schedules the cases of each test with {@code scheduler}, which unless it is a {@link CaseScheduler} is passed
+     * each case in turn while the test methods themselves are dispatched on the calling thread.
+     */
+    @Override
+    public void setScheduler(RunnerScheduler scheduler) {
+        CaseScheduler caseScheduler = scheduler instanceof CaseScheduler
+                ? (CaseScheduler) scheduler
+                : new DelegatingScheduler(scheduler);
+        super.setScheduler(caseScheduler);
+        this.scheduler = caseScheduler;
+    }
+
+    /**
+     * Returns the description of the test class, built once and reused until the tests are filtered or sorted.
+     */
+    @Override
+    public Description getDescription() {
+        Description description = this.description;
+        if (description == null) {
+            description = super.getDescription();
+            this.description = description;
+        }
+        return description;
+    }
+
+    /**
+     * Filters the tests of the class, passing to each parameterised test method the choice of which of its cases to
+     * run, as its cases are only described once generated.
+     */
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        Set<Description> filterable = runners.stream()
+                .filter(runner -> runner instanceof Filterable)
+                .map(Runner::getDescription)
+                .collect(toCollection(() -> newSetFromMap(new IdentityHashMap<>())));
+        try {
+            super.filter(new Filter() {
+                @Override
+                public boolean shouldRun(Description description) {
+                    return filterable.contains(description) || filter.shouldRun(description);
+                }
+
+                @Override
+                public void apply(Object child) throws NoTestsRemainException {
+                    filter.apply(child);
+                }
+
+                @Override
+                public String describe() {
+                    return filter.describe();
+                }
+            });
+        } finally {
+            description = null;
+        }
+    }
+
+    @Override
+    public void sort(Sorter sorter) {
+        super.sort(sorter);
+        description = null;
     }
 
     @Override
@@ -60,7 +149,54 @@ public class ParameterisedRunner extends ParentRunner<IgnorableRunner> {
 
     @Override
     protected void runChild(IgnorableRunner runner, RunNotifier notifier) {
-        runner.run(notifier);
+        runner.run(notifier, scheduler);
+    }
+
+    @Override
+    protected Statement childrenInvoker(RunNotifier notifier) {
+        FailureBudget budget = FailureBudget.of(notifier).nested(plan.maxFailuresPerClass());
+        CaseTimings timings = plan.timings();
+        RunHistory history = plan.history();
+        ResultCache results = plan.resultCache();
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                AsyncRunNotifier asyncNotifier = plan.notifiesAsynchronously() ? new AsyncRunNotifier(notifier) : null;
+                RunNotifier childNotifier = asyncNotifier != null
+                        ? asyncNotifier
+                        : scheduler.isConcurrent() ? new SynchronizedRunNotifier(notifier) : notifier;
+                if (history != null) {
+                    childNotifier = history.recording(childNotifier);
+                }
+                try {
+                    ParameterisedRunner.super.childrenInvoker(budget.counting(childNotifier)).evaluate();
+                } finally {
+                    if (asyncNotifier != null) {
+                        asyncNotifier.close();
+                    }
+                    if (timings != null) {
+                        timings.report();
+                    }
+                    if (history != null) {
+                        history.save();
+                    }
+                    if (results != null) {
+                        results.close();
+                    }
+                    plan.releaseInstances();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps {@code statement} in the {@code @BeforeClass} and {@code @AfterClass} methods and class rules of the test
+     * class, as its tests are wrapped when run in this JVM.
+     */
+    Statement withClassStatements(Statement statement) {
+        List<TestRule> classRules = classRules();
+        Statement withClassMethods = withAfterClasses(withBeforeClasses(statement));
+        return classRules.isEmpty() ? withClassMethods : new RunRules(withClassMethods, classRules, getDescription());
     }
 
     @Override
@@ -68,15 +204,35 @@ public class ParameterisedRunner extends ParentRunner<IgnorableRunner> {
         return child.isIgnored();
     }
 
+    /**
+     * Returns the model of the test class shared by every runner of it, as scanning the class for annotated members
+     * is costly for classes with many of them.
+     */
     @Override
-    protected void collectInitializationErrors(List<Throwable> errors) {
-        super.collectInitializationErrors(errors);
+    protected TestClass createTestClass(Class<?> testClass) {
+        return TEST_CLASSES.get(testClass);
+    }
 
-        checkTestsAreNotInNonStaticInnerClass(errors);
-        checkConstructorsAreValid(errors);
-        checkMethodsAreValid(errors);
-        checkRuleFieldsAreValid(errors);
-        checkRuleMethodsAreValid(errors);
+    /**
+     * Validates the test class the first time a runner is created for it, checking each member once for every rule
+     * it must follow, and reports the same errors for every runner created for it later.
+     */
+    @Override
+    protected void collectInitializationErrors(List<Throwable> errors) {
+        Class<?> testClass = getTestClass().getJavaClass();
+        List<Throwable> classErrors = INITIALIZATION_ERRORS.get(testClass);
+        if (classErrors == null) {
+            classErrors = new ArrayList<>();
+            super.collectInitializationErrors(classErrors);
+            checkTestsAreNotInNonStaticInnerClass(classErrors);
+            checkConstructorsAreValid(classErrors);
+            checkMethodsAreValid(classErrors);
+            checkRuleFieldsAreValid(classErrors);
+            checkRuleMethodsAreValid(classErrors);
+            classErrors = unmodifiableList(classErrors);
+            INITIALIZATION_ERRORS.put(testClass, classErrors);
+        }
+        errors.addAll(classErrors);
     }
 
     private void checkTestsAreNotInNonStaticInnerClass(List<Throwable> errors) {
@@ -98,90 +254,109 @@ public class ParameterisedRunner extends ParentRunner<IgnorableRunner> {
     }
 
     private void checkMethodsAreValid(List<Throwable> errors) {
-        checkMethodsArePublicVoid(errors);
-        checkMethodsDoNotUseTimeoutParameter(errors);
-        checkMethodsDoNotUseExpectedExceptionParameter(errors);
-    }
-
-    private void checkMethodsArePublicVoid(List<Throwable> errors) {
-        testMethods().forEachOrdered(method -> method.validatePublicVoid(false, errors));
-    }
-
-    private void checkMethodsDoNotUseTimeoutParameter(List<Throwable> errors) {
-        testMethods().filter(HAS_TIMEOUT_PARAMETER)
-                .map(f -> new Exception("Method " + f.getName()
-                        + "() uses timeout parameter. Use Timeout rule instead."))
-                .forEachOrdered(errors::add);
+        CoveringArray classCoveringArray = getTestClass().getAnnotation(CoveringArray.class);
+        for (FrameworkMethod method : getTestClass().getAnnotatedMethods(Test.class)) {
+            method.validatePublicVoid(false, errors);
+            Test test = method.getAnnotation(Test.class);
+            if (test.timeout() != 0) {
+                errors.add(new Exception("Method " + method.getName()
+                        + "() uses timeout parameter. Use Timeout rule instead."));
+            }
+            if (test.expected() != Test.None.class) {
+                errors.add(new Exception("Method " + method.getName()
+                        + "() uses expected parameter. Use ExpectedException rule instead."));
+            }
+            if (classCoveringArray != null || method.getAnnotation(CoveringArray.class) != null) {
+                checkCoveringArrayIsBounded(method, errors);
+            }
+        }
     }
 
-    private void checkMethodsDoNotUseExpectedExceptionParameter(List<Throwable> errors) {
-        testMethods().filter(HAS_EXPECTED_PARAMETER)
-                .map(f -> new Exception("Method " + f.getName()
-                        + "() uses expected parameter. Use ExpectedException rule instead."))
-                .forEachOrdered(errors::add);
+    /**
+     * Covering arrays hold every value of their parameters, so they cannot take values from unbounded streams or
+     * files. This is decided from the parameters' annotations alone, so that the errors cached for the class do not
+     * depend on the files or methods they name.
+     */
+    private static void checkCoveringArrayIsBounded(FrameworkMethod method, List<Throwable> errors) {
+        for (Parameter parameter : method.getMethod().getParameters()) {
+            if (!ParameterSources.isIndexable(parameter)) {
+                errors.add(new Exception("Parameter " + parameter.getName() + " of method " + method.getName()
+                        + " should have values that can be held in memory to be used in a covering array"));
+            }
+        }
     }
 
     private void checkRuleFieldsAreValid(List<Throwable> errors) {
-        final List<FrameworkField> ruleFields = getTestClass().getAnnotatedFields(Rule.class);
-        checkRuleFieldsArePublic(ruleFields, errors);
-        checkRuleFieldsAreNotStatic(ruleFields, errors);
-        checkRuleFieldsImplementTestRule(ruleFields, errors);
-    }
-
-    private void checkRuleFieldsArePublic(List<FrameworkField> ruleFields, List<Throwable> errors) {
-        ruleFields.stream()
-                .filter(IS_NOT_PUBLIC_MEMBER)
-                .map(field -> new Exception("Field " + field.getName() + " should be public"))
-                .forEachOrdered(errors::add);
-    }
-
-    private void checkRuleFieldsAreNotStatic(List<FrameworkField> ruleFields, List<Throwable> errors) {
-        ruleFields.stream()
-                .filter(IS_STATIC_MEMBER)
-                .map(field -> new Exception("Field " + field.getName() + " should not be static"))
-                .forEachOrdered(errors::add);
-    }
-
-    private void checkRuleFieldsImplementTestRule(List<FrameworkField> ruleFields, List<Throwable> errors) {
-        ruleFields.stream()
-                .filter(IS_TEST_RULE_FIELD)
-                .map(field -> new Exception("Field " + field.getName()
-                        + " should implement " + TestRule.class.getCanonicalName()))
-                .forEachOrdered(errors::add);
+        for (FrameworkField field : getTestClass().getAnnotatedFields(Rule.class)) {
+            if (!field.isPublic()) {
+                errors.add(new Exception("Field " + field.getName() + " should be public"));
+            }
+            if (field.isStatic()) {
+                errors.add(new Exception("Field " + field.getName() + " should not be static"));
+            }
+            if (!TestRule.class.isAssignableFrom(field.getType())) {
+                errors.add(new Exception("Field " + field.getName()
+                        + " should implement " + TestRule.class.getCanonicalName()));
+            }
+        }
     }
 
     private void checkRuleMethodsAreValid(List<Throwable> errors) {
-        final List<FrameworkMethod> ruleMethods = getTestClass().getAnnotatedMethods(Rule.class);
-        checkRuleMethodsArePublic(ruleMethods, errors);
-        checkRuleMethodsAreNotStatic(ruleMethods, errors);
-        checkRuleMethodsImplementTestRule(ruleMethods, errors);
+        for (FrameworkMethod method : getTestClass().getAnnotatedMethods(Rule.class)) {
+            if (!method.isPublic()) {
+                errors.add(new Exception("Method " + method.getName() + "() should be public"));
+            }
+            if (method.isStatic()) {
+                errors.add(new Exception("Method " + method.getName() + "() should not be static"));
+            }
+            if (!TestRule.class.isAssignableFrom(method.getReturnType())) {
+                errors.add(new Exception("Method " + method.getName()
+                        + "() should implement " + TestRule.class.getCanonicalName()));
+            }
+        }
     }
 
-    private void checkRuleMethodsArePublic(List<FrameworkMethod> ruleMethods, List<Throwable> errors) {
-        ruleMethods.stream()
-                .filter(IS_NOT_PUBLIC_MEMBER)
-                .map(method -> new Exception("Method " + method.getName() + "() should be public"))
-                .forEachOrdered(errors::add);
-    }
+    private CaseScheduler defaultScheduler() {
+        Execution execution = getTestClass().getAnnotation(Execution.class);
+        ExecutionMode mode = execution != null
+                ? execution.value()
+                : RunnerProperties.enumProperty(RunnerProperties.EXECUTION, ExecutionMode.class)
+                .orElse(ExecutionMode.SEQUENTIAL);
+        int parallelism = execution != null && execution.parallelism() > 0
+                ? execution.parallelism()
+                : RunnerProperties.intProperty(RunnerProperties.PARALLELISM, 0);
+        int maxConcurrentCases = execution != null && execution.maxConcurrentCases() > 0
+                ? execution.maxConcurrentCases()
+                : RunnerProperties.intProperty(RunnerProperties.MAX_CONCURRENT_CASES, 0);
 
-    private void checkRuleMethodsAreNotStatic(List<FrameworkMethod> ruleMethods, List<Throwable> errors) {
-        ruleMethods.stream()
-                .filter(IS_STATIC_MEMBER)
-                .map(method -> new Exception("Method " + method.getName() + "() should not be static"))
-                .forEachOrdered(errors::add);
+        switch (mode) {
+            case PARALLEL:
+                return CaseScheduler.parallel(parallelism);
+            case VIRTUAL_THREADS:
+                return CaseScheduler.virtualThreads(maxConcurrentCases);
+            case WORKER_PROCESSES:
+                return CaseScheduler.workerProcesses(parallelism);
+            case SEQUENTIAL:
+            default:
+                return CaseScheduler.sequential();
+        }
     }
 
-    private void checkRuleMethodsImplementTestRule(List<FrameworkMethod> ruleMethods, List<Throwable> errors) {
-        ruleMethods.stream()
-                .filter(IS_TEST_RULE_METHOD)
-                .map(method -> new Exception("Method " + method.getName()
-                        + "() should implement " + TestRule.class.getCanonicalName()))
-                .forEachOrdered(errors::add);
+    /**
+     * Cases of parameterised tests are sharded as they are generated; other tests are sharded here.
+     */
+    private boolean isLocalOrParameterised(FrameworkMethod method) {
+        return method.getMethod().getParameterCount() > 0
+                || plan.sharding().isLocal(getTestClass().getName(), method.getName());
     }
 
     private IgnorableRunner toRunner(FrameworkMethod method) {
-        if (method.getMethod().getParameterCount() == 0) {
-            return new NonParameterisedTestRunner(getTestClass(), method);
+        Parameter[] parameters = method.getMethod().getParameters();
+        if (parameters.length == 0) {
+            return new NonParameterisedTestRunner(plan, method);
+        }
+        if (Arrays.stream(parameters).allMatch(ParameterSources::isProvided)) {
+            return new ParameterisedTestRunner(plan, method);
         }
 
         throw new UnsupportedOperationException(format(
@@ -0,0 +1,316 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Ignore;
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.TestClass;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CollapseCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.CoveringArray;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxCases;
+import uk.me.michael_winter.junit.plugins.parameterised.annotations.MaxFailures;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+import static org.junit.runner.Description.createTestDescription;
+
+/**
+ * Runs a test method once for every combination of the values generated for its parameters, or for each row of a
+ * {@link CoveringArray} of them, up to the case limit set by {@link MaxCases}.
+ * <p>
+ * Cases are generated lazily while the method runs, each by its own {@link ParameterisedCaseRunner}, so only the
+ * cases in flight are held in memory. Their descriptions, which share the method's annotations, are therefore
+ * created only as they start, and are not children of the method's description unless the
+ * {@code junit.parameterised.maxDescribedCases} property asks for up to that many of them to be kept, as they are
+ * generated in the method's first run. With {@link CollapseCases} they are not reported at all: the method is
+ * reported as a single test instead.
+ * <p>
+ * Once the failures of its cases exceed the budget set by {@link MaxFailures}, or that of its class, the remaining
+ * cases are reported as ignored without being run.
+ * <p>
+ * When cases are sharded across JVMs, those of other shards are skipped as they are generated, before any test
+ * instance is created for them. The case limit applies to the cases generated, before sharding, so that every shard
+ * selects from the same cases.
+ * <p>
+ * A filter selecting a single case by name, as JUnit's own method filters do, is recognised where possible and
+ * resolved through a {@link CaseIndex} to that case alone, unless a case limit, covering array or sharding means it
+ * must be found among those generated. Any other filter of cases, and the predicate set by the {@code junit.parameterised.casePredicate}
+ * property, are applied to each case as it is generated, again before any test instance is created.
+ */
+class ParameterisedTestRunner extends IgnorableRunner implements Filterable {
+    private final ExecutionPlan plan;
+    private final FrameworkMethod method;
+    private final List<ParameterSource> sources;
+    private final MethodHandle methodHandle;
+    private final boolean takesInt;
+    private final long maxCases;
+    private final long maxFailures;
+    private final CoveringArray coveringArray;
+    private final boolean collapsed;
+    private final long maxDescribedCases;
+    private final CaseSharding sharding;
+    private final CasePredicate predicate;
+    private final CaseIndex index;
+    private final Annotation[] annotations;
+    private final Description description;
+    private volatile Filter caseFilter = null;
+    private volatile Object[] selectedCase = null;
+    private volatile boolean casesDescribed = false;
+
+    ParameterisedTestRunner(TestClass testClass, FrameworkMethod method) {
+        this(new ExecutionPlan(testClass), method);
+    }
+
+    ParameterisedTestRunner(ExecutionPlan plan, FrameworkMethod method) {
+        Parameter[] parameters = method.getMethod().getParameters();
+        if (parameters.length == 0) {
+            throw new IllegalArgumentException("Method " + method.getName() + " should have parameters");
+        }
+
+        this.plan = plan;
+        this.method = method;
+        this.sources = unmodifiableList(Arrays.stream(parameters)
+                .map(ParameterSources::forParameter)
+                .collect(toList()));
+        for (int i = 0; i < parameters.length; i++) {
+            checkParameterAcceptsValues(parameters[i], sources.get(i).valueType());
+        }
+        this.takesInt = parameters.length == 1
+                && parameters[0].getType() == int.class
+                && sources.get(0) instanceof IntParameterSource;
+        MaxCases limit = method.getAnnotation(MaxCases.class);
+        this.maxCases = limit != null ? limit.value() : plan.maxCases();
+        MaxFailures maxFailures = method.getAnnotation(MaxFailures.class);
+        this.maxFailures = maxFailures != null ? maxFailures.value() : plan.maxFailuresPerMethod();
+        CoveringArray coveringArray = method.getAnnotation(CoveringArray.class);
+        this.coveringArray = coveringArray != null ? coveringArray : plan.coveringArray();
+        if (this.coveringArray != null && this.coveringArray.strength() < 1) {
+            throw new IllegalArgumentException("Covering array strength for method " + method.getName()
+                    + " should be positive");
+        }
+        this.methodHandle = takesInt
+                ? Handles.forMethod(method)
+                : Handles.forMethod(method).asSpreader(Object[].class, parameters.length);
+        this.collapsed = nonNull(method.getAnnotation(CollapseCases.class)) || plan.collapsesCases();
+        this.maxDescribedCases = plan.maxDescribedCases();
+        this.sharding = plan.sharding();
+        this.predicate = plan.casePredicate() != null ? plan.casePredicate().forMethod(method.getMethod()) : null;
+        this.index = new CaseIndex(sources);
+        this.annotations = method.getAnnotations();
+        this.description = createTestDescription(method.getDeclaringClass(), method.getName(), annotations);
+    }
+
+    private void checkParameterAcceptsValues(Parameter parameter, Class<?> valueType) {
+        Class<?> parameterType = parameter.getType();
+        boolean accepted = parameterType.isPrimitive()
+                ? parameterType == valueType
+                : parameterType.isAssignableFrom(MethodType.methodType(valueType).wrap().returnType());
+        if (!accepted) {
+            throw new IllegalArgumentException("Parameter " + parameter.getName() + " of method " + method.getName()
+                    + " should accept values of type " + valueType.getName());
+        }
+    }
+
+    @Override
+    public Description getDescription() {
+        return description;
+    }
+
+    /**
+     * Keeps every case if {@code filter} selects the method itself, or else only those cases it selects.
+     *
+     * @throws NoTestsRemainException if {@code filter} is known to select none of the cases.
+     */
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        if (filter.shouldRun(description)) {
+            return;
+        }
+
+        Object[] selected = selectedCase;
+        String selectedTest = CaseIndex.selectedTest(filter, method.getDeclaringClass());
+        if (selected == null && selectedTest != null) {
+            if (!selectedTest.startsWith(method.getName() + "[") || !selectedTest.endsWith("]")) {
+                throw new NoTestsRemainException();
+            }
+            if (maxCases == 0 && coveringArray == null && !sharding.isSharded() && index.isIndexable()) {
+                selected = index.find(selectedTest.substring(method.getName().length() + 1, selectedTest.length() - 1));
+                if (selected == null) {
+                    throw new NoTestsRemainException();
+                }
+            }
+        }
+
+        if (selected == null) {
+            caseFilter = caseFilter != null ? caseFilter.intersect(filter) : filter;
+            return;
+        }
+        Description selectedDescription = describeCase(selected);
+        if (!filter.shouldRun(selectedDescription)
+                || caseFilter != null && !caseFilter.shouldRun(selectedDescription)) {
+            throw new NoTestsRemainException();
+        }
+        selectedCase = selected;
+    }
+
+    @Override
+    boolean isIgnored() {
+        return nonNull(method.getAnnotation(Ignore.class));
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        run(notifier, CaseScheduler.sequential());
+    }
+
+    @Override
+    void run(RunNotifier notifier, CaseScheduler scheduler) {
+        if (isIgnored()) {
+            notifier.fireTestIgnored(description);
+            return;
+        }
+
+        FailureBudget budget = FailureBudget.of(notifier).nested(maxFailures);
+        if (collapsed) {
+            CollapsingRunNotifier collapsingNotifier = new CollapsingRunNotifier(notifier, description);
+            try {
+                dispatchCases(budget.counting(collapsingNotifier), scheduler,
+                        runner -> collapsingNotifier.expectCase());
+            } finally {
+                collapsingNotifier.allCasesDispatched();
+            }
+        } else if (casesDescribed || maxDescribedCases == 0) {
+            dispatchCases(budget.counting(notifier), scheduler, runner -> {
+            });
+        } else {
+            long[] described = {0};
+            try {
+                dispatchCases(budget.counting(notifier), scheduler, runner -> {
+                    if (described[0] < maxDescribedCases) {
+                        description.addChild(runner.getDescription());
+                        described[0]++;
+                    }
+                });
+            } finally {
+                casesDescribed = true;
+            }
+        }
+    }
+
+    private void dispatchCases(RunNotifier notifier, CaseScheduler scheduler,
+                               Consumer<TestCaseRunner> beforeEachCase) {
+        Object[] selected = selectedCase;
+        if (selected != null) {
+            if (isSelected(selected)) {
+                TestCaseRunner runner = newCase(selected);
+                beforeEachCase.accept(runner);
+                scheduler.execute(runner, notifier);
+            }
+            return;
+        }
+
+        long remaining = maxCases > 0 ? maxCases : Long.MAX_VALUE;
+        long ordinal = 0;
+        if (takesInt) {
+            PrimitiveIterator.OfInt values = ((IntParameterSource) sources.get(0)).intIterator();
+            try {
+                for (; remaining > 0 && values.hasNext(); remaining--, ordinal++) {
+                    int value = values.nextInt();
+                    if (!isLocal(ordinal) || !isSelected(value)) {
+                        continue;
+                    }
+                    TestCaseRunner runner = new ParameterisedIntCaseRunner(plan, this, methodHandle, value);
+                    beforeEachCase.accept(runner);
+                    scheduler.execute(runner, notifier);
+                }
+            } finally {
+                ParameterSource.close(values);
+            }
+        } else {
+            Iterator<Object[]> combinations = coveringArray != null
+                    ? new IpogCoveringArray(sources, coveringArray.strength()).iterator()
+                    : new CartesianProduct(sources);
+            try {
+                for (; remaining > 0 && combinations.hasNext(); remaining--, ordinal++) {
+                    Object[] arguments = combinations.next();
+                    if (!isLocal(ordinal) || !isSelected(arguments)) {
+                        continue;
+                    }
+                    TestCaseRunner runner = newCase(arguments);
+                    beforeEachCase.accept(runner);
+                    scheduler.execute(runner, notifier);
+                }
+            } finally {
+                ParameterSource.close(combinations);
+            }
+        }
+    }
+
+    FrameworkMethod method() {
+        return method;
+    }
+
+    /**
+     * @return a runner for the case of this method passed {@code arguments}.
+     */
+    TestCaseRunner newCase(Object[] arguments) {
+        return takesInt
+                ? new ParameterisedIntCaseRunner(plan, this, methodHandle, (Integer) arguments[0])
+                : new ParameterisedCaseRunner(plan, this, methodHandle, arguments);
+    }
+
+    /**
+     * @param ordinal the position of a case among those generated, which unlike its name is the same in every JVM.
+     */
+    private boolean isLocal(long ordinal) {
+        return !sharding.isSharded()
+                || sharding.isLocal(method.getDeclaringClass().getName(), method.getName(), ordinal);
+    }
+
+    private boolean isSelected(int value) {
+        Filter caseFilter = this.caseFilter;
+        return (predicate == null || predicate.test(value))
+                && (caseFilter == null || caseFilter.shouldRun(describeCase(value)));
+    }
+
+    private boolean isSelected(Object[] arguments) {
+        Filter caseFilter = this.caseFilter;
+        return (predicate == null || predicate.test(arguments))
+                && (caseFilter == null || caseFilter.shouldRun(describeCase(arguments)));
+    }
+
+    Description describeCase(int value) {
+        return createTestDescription(method.getDeclaringClass(), caseName(value), annotations);
+    }
+
+    Description describeCase(Object[] arguments) {
+        return createTestDescription(method.getDeclaringClass(), caseName(arguments), annotations);
+    }
+
+    private String caseName(int value) {
+        return method.getName() + "[" + value + "]";
+    }
+
+    private String caseName(Object[] arguments) {
+        StringJoiner name = new StringJoiner(", ", method.getName() + "[", "]");
+        for (int i = 0; i < arguments.length; i++) {
+            name.add(sources.get(i).nameOf(arguments[i]));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Holds the values of parameter providers that are costly to generate, shared by every test class run by the JVM, so
+ * that each is generated once rather than by every runner using it.
+ * <p>
+ * Each class declaring providers has a cache of its own, held by the class itself, so that neither the class nor the
+ * values generated by its providers are kept once it is unloaded. Values are held strongly up to a total weight for
+ * each class, the number of values set by the {@code junit.parameterised.providerCacheSize} system property. As
+ * values are counted rather than measured, the default keeps this tier small. Beyond it, the least recently used are
+ * held only through soft references, which the garbage collector clears before running out of memory, and values
+ * heavier than the total are never held strongly at all. Concurrent requests for the same values wait for them to be
+ * generated once, and a request that would wait for values whose generation is itself waiting on the request, in
+ * this cache or another, fails instead.
+ */
+final class ProviderCache {
+    private static final long MAX_WEIGHT = RunnerProperties.longProperty(RunnerProperties.PROVIDER_CACHE_SIZE, 10_000);
+    private static final ClassValue<ProviderCache> CACHES = new ClassValue<ProviderCache>() {
+        @Override
+        protected ProviderCache computeValue(Class<?> type) {
+            return new ProviderCache(MAX_WEIGHT);
+        }
+    };
+    private static final Map<FutureTask<?>, Thread> LOADERS = new HashMap<>();
+    private static final Map<Thread, FutureTask<?>> AWAITING = new HashMap<>();
+
+    private final long maxWeight;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Object, SoftReference<Entry>> evicted = new HashMap<>();
+    private final Map<Object, FutureTask<Entry>> loading = new HashMap<>();
+    private long weight = 0;
+
+    ProviderCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return the cache of the values of the providers declared by {@code declaringClass}.
+     */
+    static ProviderCache forClass(Class<?> declaringClass) {
+        return CACHES.get(declaringClass);
+    }
+
+    /**
+     * @param key     identifies the provider and anything it is passed.
+     * @param loader  generates the values when they are not held.
+     * @param weigher counts the values generated.
+     * @return the values held for {@code key}, generated by {@code loader} if need be.
+     * @throws IllegalStateException if generating the values needs them to have been generated, directly or through
+     *                               those of another key, of this cache or another.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T values(Object key, Supplier<T> loader, ToIntFunction<T> weigher) {
+        Thread current = Thread.currentThread();
+        FutureTask<Entry> task;
+        boolean loads;
+        synchronized (this) {
+            Entry entry = lookUp(key);
+            if (entry != null) {
+                return (T) entry.values;
+            }
+            task = loading.get(key);
+            loads = task == null;
+            if (loads) {
+                task = new FutureTask<>(() -> {
+                    T values = loader.get();
+                    return new Entry(values, weigher.applyAsInt(values));
+                });
+                loading.put(key, task);
+                synchronized (LOADERS) {
+                    LOADERS.put(task, current);
+                }
+            } else {
+                synchronized (LOADERS) {
+                    checkNotAwaitedBy(task, key, current);
+                    AWAITING.put(current, task);
+                }
+            }
+        }
+
+        if (loads) {
+            try {
+                task.run();
+            } finally {
+                synchronized (LOADERS) {
+                    LOADERS.remove(task);
+                }
+                synchronized (this) {
+                    loading.remove(key);
+                    Entry entry = resultOf(task);
+                    if (entry != null) {
+                        store(key, entry);
+                    }
+                }
+            }
+        }
+        try {
+            return (T) task.get().values;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parameter values", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Could not generate parameter values", e.getCause());
+        } finally {
+            if (!loads) {
+                synchronized (LOADERS) {
+                    AWAITING.remove(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * Follows the loaders of the values awaited from {@code task}, in any cache, to fail rather than wait for ever if
+     * any of them is the calling thread.
+     */
+    private static void checkNotAwaitedBy(FutureTask<?> task, Object key, Thread current) {
+        for (FutureTask<?> awaited = task; awaited != null; ) {
+            Thread loader = LOADERS.get(awaited);
+            if (loader == current) {
+                throw new IllegalStateException("Parameter values for " + key + " are needed to generate themselves");
+            }
+            awaited = loader != null ? AWAITING.get(loader) : null;
+        }
+    }
+
+    /**
+     * @return whether values are held strongly for {@code key}.
+     */
+    synchronized boolean isHeld(Object key) {
+        return entries.containsKey(key);
+    }
+
+    private Entry lookUp(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            SoftReference<Entry> reference = evicted.remove(key);
+            entry = reference != null ? reference.get() : null;
+            if (entry != null) {
+                store(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private void store(Object key, Entry entry) {
+        evicted.values().removeIf(reference -> reference.get() == null);
+        if (entry.weight > maxWeight) {
+            evicted.put(key, new SoftReference<>(entry));
+            return;
+        }
+
+        entries.put(key, entry);
+        weight += entry.weight;
+        for (Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet().iterator(); weight > maxWeight; ) {
+            Map.Entry<Object, Entry> evictee = eldest.next();
+            eldest.remove();
+            weight -= evictee.getValue().weight;
+            evicted.put(evictee.getKey(), new SoftReference<>(evictee.getValue()));
+        }
+    }
+
+    private static Entry resultOf(FutureTask<Entry> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        final Object values;
+        final long weight;
+
+        Entry(Object values, long weight) {
+            this.values = values;
+            this.weight = weight;
+        }
+    }
+}
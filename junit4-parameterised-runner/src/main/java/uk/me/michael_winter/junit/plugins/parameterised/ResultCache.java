@@ -0,0 +1,359 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Remembers the tests of a class that passed, so that they need not be run again until the class or anything on
+ * the class path changes.
+ * <p>
+ * Each class has a file in the directory named by the {@code junit.parameterised.resultCache} system property,
+ * holding an open-addressed table of hashes of the signature and argument values of its passing tests. The table is
+ * memory-mapped, and is cleared whenever the fingerprint of the class's bytecode and of the class path no longer
+ * matches the one it was recorded with. Each shard of a sharded run has a file of its own.
+ * <p>
+ * Arguments are encoded by value: strings, numbers, enums and other types overriding both {@code equals} and
+ * {@code toString}, byte buffers and arrays of any of these. Tests passed any other argument, which may only be
+ * compared by identity, are not cached and so always run.
+ * <p>
+ * A file is opened when first used and locked for as long as it is open, which is until the class has run, when the
+ * table is written back and the file closed. A JVM that finds the file locked by another runs every test of the class
+ * as though none had passed, and records nothing.
+ */
+final class ResultCache {
+    private static final long MAGIC = 0x6a75_6e69_7450_5243L;
+    private static final int HEADER_BYTES = Long.BYTES * 2 + Integer.BYTES * 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Map<Path, ResultCache> OPEN = new ConcurrentHashMap<>();
+    private static final ClassValue<Boolean> VALUE_TYPES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class
+                        && type.getMethod("toString").getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+    private static volatile byte[] classPathFingerprint = null;
+
+    private final Path file;
+    private final Class<?> testClass;
+    private FileChannel channel;
+    private FileLock lock;
+    private MappedByteBuffer table;
+    private int capacity;
+    private int size;
+
+    private ResultCache(Path file, Class<?> testClass) {
+        this.file = file;
+        this.testClass = testClass;
+    }
+
+    /**
+     * @return the cache of results of {@code testClass}, or {@code null} if results are not cached.
+     */
+    static ResultCache forClass(Class<?> testClass) {
+        CaseSharding sharding = CaseSharding.fromProperties();
+        String fileName = sharding.isSharded()
+                ? testClass.getName() + "." + sharding + ".results"
+                : testClass.getName() + ".results";
+        return RunnerProperties.stringProperty(RunnerProperties.RESULT_CACHE)
+                .map(directory -> OPEN.computeIfAbsent(
+                        Paths.get(directory).resolve(fileName).toAbsolutePath(),
+                        file -> new ResultCache(file, testClass)))
+                .orElse(null);
+    }
+
+    /**
+     * @return whether {@code method} passed when last passed {@code arguments}, which is never so if they cannot be
+     * encoded by value.
+     */
+    synchronized boolean hasPassed(Method method, Object[] arguments) {
+        long key = key(method, arguments);
+        if (key == 0 || !isOpen()) {
+            return false;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & (capacity - 1)) {
+            long stored = table.getLong(offset(slot));
+            if (stored == key) {
+                return true;
+            } else if (stored == 0) {
+                return false;
+            }
+        }
+    }
+
+    synchronized void recordPassed(Method method, Object[] arguments) {
+        long key = key(method, arguments);
+        if (key != 0 && isOpen() && insert(key)) {
+            size++;
+            table.putInt(Long.BYTES * 2 + Integer.BYTES, size);
+            if (size * 2 > capacity) {
+                grow();
+            }
+        }
+    }
+
+    /**
+     * Writes the table back to the file and closes it, releasing the lock, until the cache is next used.
+     */
+    synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (table != null) {
+                table.force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close result cache " + file, e);
+        } finally {
+            channel = null;
+            lock = null;
+            table = null;
+        }
+    }
+
+    /**
+     * Opens the file if need be, clearing it if it was recorded against a different fingerprint.
+     *
+     * @return whether the file could be locked by this JVM.
+     */
+    private boolean isOpen() {
+        if (channel != null) {
+            return lock != null;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, CREATE, READ, WRITE);
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                return false;
+            }
+            long fingerprint = fingerprint(testClass);
+            if (channel.size() >= HEADER_BYTES) {
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                int storedCapacity = header.getInt(Long.BYTES * 2);
+                if (header.getLong(0) == MAGIC
+                        && header.getLong(Long.BYTES) == fingerprint
+                        && Integer.bitCount(storedCapacity) == 1
+                        && channel.size() >= tableBytes(storedCapacity)) {
+                    map(storedCapacity);
+                    size = table.getInt(Long.BYTES * 2 + Integer.BYTES);
+                    return true;
+                }
+            }
+            channel.truncate(0);
+            map(INITIAL_CAPACITY);
+            size = 0;
+            table.putLong(0, MAGIC);
+            table.putLong(Long.BYTES, fingerprint);
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Could not open result cache " + file, e);
+        }
+    }
+
+    private boolean insert(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & (capacity - 1)) {
+            long stored = table.getLong(offset(slot));
+            if (stored == key) {
+                return false;
+            } else if (stored == 0) {
+                table.putLong(offset(slot), key);
+                return true;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] keys = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long key = table.getLong(offset(slot));
+            if (key != 0) {
+                keys[count++] = key;
+                table.putLong(offset(slot), 0);
+            }
+        }
+        try {
+            map(capacity * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < count; i++) {
+            insert(keys[i]);
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        this.table = channel.map(FileChannel.MapMode.READ_WRITE, 0, tableBytes(capacity));
+        this.capacity = capacity;
+        table.putInt(Long.BYTES * 2, capacity);
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & (capacity - 1);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * Long.BYTES;
+    }
+
+    private static long tableBytes(int capacity) {
+        return HEADER_BYTES + (long) capacity * Long.BYTES;
+    }
+
+    /**
+     * @return a hash of the signature of {@code method} and the values of {@code arguments}, which is never zero as
+     * that marks an empty slot, or zero if an argument cannot be encoded by value.
+     */
+    private static long key(Method method, Object[] arguments) {
+        MessageDigest digest = sha256();
+        update(digest, method.getName());
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            update(digest, parameterType.getName());
+        }
+        for (Object argument : arguments) {
+            if (!update(digest, argument)) {
+                return 0;
+            }
+        }
+        long key = ByteBuffer.wrap(digest.digest()).getLong();
+        return key != 0 ? key : 1;
+    }
+
+    /**
+     * @return whether {@code value} could be encoded by value.
+     */
+    private static boolean update(MessageDigest digest, Object value) {
+        if (value == null) {
+            update(digest, "");
+            return true;
+        }
+        Class<?> type = value.getClass();
+        update(digest, type.getName());
+        if (value instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(buffer.remaining()).array());
+            digest.update(buffer);
+            return true;
+        } else if (type.isArray()) {
+            int length = Array.getLength(value);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(length).array());
+            for (int i = 0; i < length; i++) {
+                if (!update(digest, Array.get(value, i))) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (value instanceof Enum) {
+            update(digest, ((Enum<?>) value).name());
+            return true;
+        } else if (VALUE_TYPES.get(type)) {
+            update(digest, value.toString());
+            return true;
+        }
+        return false;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * Hashes the bytecode of {@code testClass} and its superclasses together with the class path.
+     */
+    private static long fingerprint(Class<?> testClass) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(classPathFingerprint());
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            String name = type.getName();
+            String resource = name.substring(name.lastIndexOf('.') + 1) + ".class";
+            try (InputStream bytecode = type.getResourceAsStream(resource)) {
+                if (bytecode != null) {
+                    byte[] buffer = new byte[8192];
+                    for (int read = bytecode.read(buffer); read >= 0; read = bytecode.read(buffer)) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * Hashes the path, size and modification time of every file on the class path, once for each JVM.
+     */
+    private static byte[] classPathFingerprint() throws IOException {
+        byte[] fingerprint = classPathFingerprint;
+        if (fingerprint == null) {
+            MessageDigest digest = sha256();
+            for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                Path path = Paths.get(entry);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> files = Files.walk(path)) {
+                        files.filter(Files::isRegularFile).sorted().forEachOrdered(file -> update(digest, file));
+                    }
+                } else if (Files.exists(path)) {
+                    update(digest, path);
+                }
+            }
+            fingerprint = digest.digest();
+            classPathFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    private static void update(MessageDigest digest, Path file) {
+        try {
+            digest.update(file.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(ByteBuffer.allocate(Long.BYTES * 2)
+                    .putLong(Files.size(file))
+                    .putLong(Files.getLastModifiedTime(file).toMillis())
+                    .array());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
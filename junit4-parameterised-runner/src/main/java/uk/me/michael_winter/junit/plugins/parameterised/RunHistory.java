@@ -0,0 +1,228 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The outcomes and durations of the test methods of a class in earlier runs, used to run those that failed most
+ * recently first and, when tests run in parallel, those that take longest next.
+ * <p>
+ * The history of each class is kept in a file in the directory named by the {@code junit.parameterised.history}
+ * system property. The entries of the methods run are replaced at the end of each run, keeping those of the rest.
+ * The duration of a parameterised method is the total of those of its cases.
+ */
+final class RunHistory {
+    private final Path file;
+    private final Map<String, Entry> previous;
+    private final Map<String, Recording> current = new ConcurrentHashMap<>();
+
+    private RunHistory(Path file, Map<String, Entry> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * @return the history of {@code testClass}, or {@code null} if none is kept.
+     */
+    static RunHistory forClass(Class<?> testClass) {
+        return RunnerProperties.stringProperty(RunnerProperties.HISTORY)
+                .map(directory -> load(Paths.get(directory).resolve(testClass.getName() + ".history")))
+                .orElse(null);
+    }
+
+    /**
+     * @param longestFirst whether to order tests that did not fail by decreasing duration, rather than keeping
+     *                     their order.
+     */
+    Sorter sorter(boolean longestFirst) {
+        Comparator<Description> failedFirst = Comparator.comparing(description -> !entry(description).failed);
+        return new Sorter(longestFirst
+                ? failedFirst.thenComparing(description -> -entry(description).nanos)
+                : failedFirst);
+    }
+
+    /**
+     * @return {@code notifier}, recording the outcomes and durations of the tests notified to it.
+     */
+    RunNotifier recording(RunNotifier notifier) {
+        return new RecordingNotifier(notifier);
+    }
+
+    /**
+     * Saves the outcomes recorded since the last save, together with the earlier entries of methods not run.
+     */
+    void save() {
+        if (current.isEmpty()) {
+            return;
+        }
+        Map<String, Entry> entries = new TreeMap<>(previous);
+        current.forEach((name, recording) -> entries.put(name, recording.toEntry()));
+        current.clear();
+        previous.clear();
+        previous.putAll(entries);
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    out.write(entry.getKey() + "\t" + entry.getValue().failed + "\t" + entry.getValue().nanos);
+                    out.newLine();
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save run history " + file, e);
+        }
+    }
+
+    private Entry entry(Description description) {
+        return previous.getOrDefault(methodName(description), Entry.UNKNOWN);
+    }
+
+    /**
+     * @return the name of the test method of {@code description}, which may be that of one of its cases.
+     */
+    private static String methodName(Description description) {
+        String name = description.getMethodName() != null ? description.getMethodName() : description.getDisplayName();
+        int arguments = name.indexOf('[');
+        return arguments >= 0 ? name.substring(0, arguments) : name;
+    }
+
+    private static RunHistory load(Path file) {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        if (Files.exists(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t");
+                    if (fields.length == 3) {
+                        try {
+                            entries.put(fields[0],
+                                    new Entry(Boolean.parseBoolean(fields[1]), Long.parseLong(fields[2])));
+                        } catch (NumberFormatException e) {
+                            // Skip entries written by a different version.
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read run history " + file, e);
+            }
+        }
+        return new RunHistory(file, entries);
+    }
+
+    private static final class Entry {
+        static final Entry UNKNOWN = new Entry(false, 0);
+
+        final boolean failed;
+        final long nanos;
+
+        Entry(boolean failed, long nanos) {
+            this.failed = failed;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class Recording {
+        final LongAdder nanos = new LongAdder();
+        volatile boolean failed = false;
+
+        Entry toEntry() {
+            return new Entry(failed, nanos.sum());
+        }
+    }
+
+    private class RecordingNotifier extends RunNotifier {
+        private final RunNotifier notifier;
+        private final Map<Description, Long> started = new ConcurrentHashMap<>();
+
+        RecordingNotifier(RunNotifier notifier) {
+            this.notifier = notifier;
+        }
+
+        @Override
+        public void addListener(RunListener listener) {
+            notifier.addListener(listener);
+        }
+
+        @Override
+        public void addFirstListener(RunListener listener) {
+            notifier.addFirstListener(listener);
+        }
+
+        @Override
+        public void removeListener(RunListener listener) {
+            notifier.removeListener(listener);
+        }
+
+        @Override
+        public void fireTestRunStarted(Description description) {
+            notifier.fireTestRunStarted(description);
+        }
+
+        @Override
+        public void fireTestRunFinished(Result result) {
+            notifier.fireTestRunFinished(result);
+        }
+
+        @Override
+        public void fireTestStarted(Description description) throws StoppedByUserException {
+            recording(description);
+            started.put(description, System.nanoTime());
+            notifier.fireTestStarted(description);
+        }
+
+        @Override
+        public void fireTestFailure(Failure failure) {
+            recording(failure.getDescription()).failed = true;
+            notifier.fireTestFailure(failure);
+        }
+
+        @Override
+        public void fireTestAssumptionFailed(Failure failure) {
+            notifier.fireTestAssumptionFailed(failure);
+        }
+
+        @Override
+        public void fireTestIgnored(Description description) {
+            notifier.fireTestIgnored(description);
+        }
+
+        @Override
+        public void fireTestFinished(Description description) {
+            Long start = started.remove(description);
+            if (start != null) {
+                recording(description).nanos.add(System.nanoTime() - start);
+            }
+            notifier.fireTestFinished(description);
+        }
+
+        @Override
+        public void pleaseStop() {
+            notifier.pleaseStop();
+        }
+
+        private Recording recording(Description description) {
+            return current.computeIfAbsent(methodName(description), name -> new Recording());
+        }
+    }
+}
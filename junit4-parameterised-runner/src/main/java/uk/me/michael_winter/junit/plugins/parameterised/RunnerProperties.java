@@ -0,0 +1,54 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.util.Locale;
+import java.util.Optional;
+
+final class RunnerProperties {
+    static final String EXECUTION = "junit.parameterised.execution";
+    static final String PARALLELISM = "junit.parameterised.parallelism";
+    static final String MAX_CONCURRENT_CASES = "junit.parameterised.maxConcurrentCases";
+    static final String MAX_CASES = "junit.parameterised.maxCases";
+    static final String COLLAPSE_CASES = "junit.parameterised.collapseCases";
+    static final String MAX_DESCRIBED_CASES = "junit.parameterised.maxDescribedCases";
+    static final String MAX_FAILURES_PER_METHOD = "junit.parameterised.maxFailuresPerMethod";
+    static final String MAX_FAILURES_PER_CLASS = "junit.parameterised.maxFailuresPerClass";
+    static final String TIMINGS = "junit.parameterised.timings";
+    static final String ASYNC_NOTIFICATIONS = "junit.parameterised.asyncNotifications";
+    static final String RESULT_CACHE = "junit.parameterised.resultCache";
+    static final String CASE_PREDICATE = "junit.parameterised.casePredicate";
+    static final String PROVIDER_CACHE_SIZE = "junit.parameterised.providerCacheSize";
+    static final String HISTORY = "junit.parameterised.history";
+    static final String SHARD_INDEX = "junit.parameterised.shardIndex";
+    static final String SHARD_COUNT = "junit.parameterised.shardCount";
+
+    private RunnerProperties() {
+    }
+
+    static Optional<String> stringProperty(String name) {
+        return Optional.ofNullable(System.getProperty(name))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty());
+    }
+
+    static boolean booleanProperty(String name) {
+        return Boolean.getBoolean(name);
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+
+    static long longProperty(String name, long defaultValue) {
+        return Long.getLong(name, defaultValue);
+    }
+
+    static <E extends Enum<E>> Optional<E> enumProperty(String name, Class<E> type) {
+        return stringProperty(name).map(value -> {
+            try {
+                return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown value '" + value + "' for property " + name, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+class SequentialScheduler extends CaseScheduler {
+    @Override
+    public void execute(Runnable testCase) {
+        testCase.run();
+    }
+
+    @Override
+    public void finished() {
+    }
+
+    @Override
+    protected boolean isConcurrent() {
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+/**
+ * Serialises notifications sent to a {@link RunNotifier} by tests running on several threads, so that listeners
+ * which are not thread-safe observe one event at a time.
+ */
+class SynchronizedRunNotifier extends RunNotifier {
+    private final RunNotifier notifier;
+    private final Object lock = new Object();
+
+    SynchronizedRunNotifier(RunNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void addListener(RunListener listener) {
+        notifier.addListener(listener);
+    }
+
+    @Override
+    public void addFirstListener(RunListener listener) {
+        notifier.addFirstListener(listener);
+    }
+
+    @Override
+    public void removeListener(RunListener listener) {
+        notifier.removeListener(listener);
+    }
+
+    @Override
+    public void fireTestRunStarted(Description description) {
+        synchronized (lock) {
+            notifier.fireTestRunStarted(description);
+        }
+    }
+
+    @Override
+    public void fireTestRunFinished(Result result) {
+        synchronized (lock) {
+            notifier.fireTestRunFinished(result);
+        }
+    }
+
+    @Override
+    public void fireTestStarted(Description description) throws StoppedByUserException {
+        synchronized (lock) {
+            notifier.fireTestStarted(description);
+        }
+    }
+
+    @Override
+    public void fireTestFailure(Failure failure) {
+        synchronized (lock) {
+            notifier.fireTestFailure(failure);
+        }
+    }
+
+    @Override
+    public void fireTestAssumptionFailed(Failure failure) {
+        synchronized (lock) {
+            notifier.fireTestAssumptionFailed(failure);
+        }
+    }
+
+    @Override
+    public void fireTestIgnored(Description description) {
+        synchronized (lock) {
+            notifier.fireTestIgnored(description);
+        }
+    }
+
+    @Override
+    public void fireTestFinished(Description description) {
+        synchronized (lock) {
+            notifier.fireTestFinished(description);
+        }
+    }
+
+    @Override
+    public void pleaseStop() {
+        notifier.pleaseStop();
+    }
+}
@@ -0,0 +1,356 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+import uk.me.michael_winter.junit.plugins.parameterised.CaseTimings.Phase;
+
+import java.lang.invoke.MethodHandle;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Runs a single test: creating an instance of the test class, applying its rules and invoking its {@code @Before},
+ * test and {@code @After} methods.
+ */
+abstract class TestCaseRunner extends IgnorableRunner {
+    private final ExecutionPlan plan;
+
+    TestCaseRunner(ExecutionPlan plan) {
+        this.plan = plan;
+    }
+
+    abstract Statement methodInvoker(Object testInstance);
+
+    /**
+     * Invokes the test method on {@code testInstance}, as the statement returned by {@link #methodInvoker} would.
+     */
+    abstract void invokeTest(Object testInstance) throws Throwable;
+
+    Class<?> testClass() {
+        return plan.testClass();
+    }
+
+    /**
+     * @return the test method run by this case.
+     */
+    abstract FrameworkMethod method();
+
+    /**
+     * @return the arguments passed to the test method, which are empty if it has no parameters.
+     */
+    abstract Object[] arguments();
+
+    @Override
+    void run(RunNotifier notifier, CaseScheduler scheduler) {
+        scheduler.execute(this, notifier);
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        Description description = getDescription();
+        if (isIgnored() || FailureBudget.of(notifier).isSpent() || hasPassedBefore()) {
+            notifier.fireTestIgnored(description);
+            return;
+        }
+
+        boolean passed;
+        if (plan.timings() != null) {
+            CaseTimings.Timer timer = plan.timings().newTimer(method().getName());
+            try {
+                passed = runTest(timedMethodBlock(description, timer), description, notifier);
+            } finally {
+                timer.finished(description.getMethodName());
+            }
+        } else if (!plan.hasRules()) {
+            passed = runDirectly(description, notifier);
+        } else {
+            passed = runTest(methodBlock(description), description, notifier);
+        }
+        if (passed) {
+            recordPassed();
+        }
+    }
+
+    /**
+     * @return whether this test passed with the same arguments in an earlier run against the same bytecode and
+     * class path.
+     */
+    boolean hasPassedBefore() {
+        ResultCache results = plan.resultCache();
+        return results != null && results.hasPassed(method().getMethod(), arguments());
+    }
+
+    void recordPassed() {
+        ResultCache results = plan.resultCache();
+        if (results != null) {
+            results.recordPassed(method().getMethod(), arguments());
+        }
+    }
+
+    /**
+     * @return whether the test passed.
+     */
+    private boolean runTest(Statement statement, Description description, RunNotifier notifier) {
+        notifier.fireTestStarted(description);
+        try {
+            statement.evaluate();
+            return true;
+        } catch (Throwable throwable) {
+            fireTestFailure(throwable, description, notifier);
+            return false;
+        } finally {
+            notifier.fireTestFinished(description);
+        }
+    }
+
+    /**
+     * Runs a test without rules as {@link #methodBlock} would, but without building a chain of statements, so that
+     * nothing is allocated unless the test fails.
+     */
+    private boolean runDirectly(Description description, RunNotifier notifier) {
+        notifier.fireTestStarted(description);
+        try {
+            Object testInstance;
+            try {
+                testInstance = plan.testInstance();
+            } catch (Throwable throwable) {
+                fireTestFailure(throwable, description, notifier);
+                return false;
+            }
+
+            Throwable failure = null;
+            List<Throwable> failures = null;
+            try {
+                List<MethodHandle> beforeMethods = plan.beforeMethods();
+                for (int i = 0; i < beforeMethods.size(); i++) {
+                    beforeMethods.get(i).invokeExact(testInstance);
+                }
+                invokeTest(testInstance);
+            } catch (Throwable throwable) {
+                failure = throwable;
+            }
+            List<MethodHandle> afterMethods = plan.afterMethods();
+            for (int i = 0; i < afterMethods.size(); i++) {
+                try {
+                    afterMethods.get(i).invokeExact(testInstance);
+                } catch (Throwable throwable) {
+                    if (failure == null) {
+                        failure = throwable;
+                    } else {
+                        if (failures == null) {
+                            failures = new LinkedList<>();
+                            failures.add(failure);
+                        }
+                        failures.add(throwable);
+                    }
+                }
+            }
+
+            if (failures != null) {
+                failures.forEach(throwable -> notifier.fireTestFailure(new Failure(description, throwable)));
+            } else if (failure != null) {
+                fireTestFailure(failure, description, notifier);
+            }
+            return failure == null;
+        } finally {
+            notifier.fireTestFinished(description);
+        }
+    }
+
+    private static void fireTestFailure(Throwable throwable, Description description, RunNotifier notifier) {
+        if (throwable instanceof MultipleFailureException) {
+            ((MultipleFailureException) throwable).getFailures()
+                    .forEach(failure -> notifier.fireTestFailure(new Failure(description, failure)));
+        } else {
+            notifier.fireTestFailure(new Failure(description, throwable));
+        }
+    }
+
+    private Statement methodBlock(Description description) {
+        try {
+            Object testInstance = plan.testInstance();
+
+            Statement statement = methodInvoker(testInstance);
+            statement = executingBeforeMethods(statement, testInstance);
+            statement = executingAfterMethods(statement, testInstance);
+            statement = executingRules(statement, testInstance, description);
+            return statement;
+        } catch (Throwable e) {
+            return new DeferredException(e);
+        }
+    }
+
+    private Statement timedMethodBlock(Description description, CaseTimings.Timer timer) {
+        try {
+            Object testInstance = timer.construct(plan);
+
+            Statement test = timer.timing(methodInvoker(testInstance), null, Phase.TEST);
+            Statement before = timer.timing(executingBeforeMethods(test, testInstance), test, Phase.BEFORE);
+            Statement after = timer.timing(executingAfterMethods(before, testInstance), before, Phase.AFTER);
+            return timer.timing(executingRules(after, testInstance, description), after, Phase.RULES);
+        } catch (Throwable e) {
+            return new DeferredException(e);
+        }
+    }
+
+    private Statement executingBeforeMethods(Statement next, Object testInstance) {
+        List<MethodHandle> beforeMethods = plan.beforeMethods();
+        return beforeMethods.isEmpty() ? next : new BeforeInvoker(next, beforeMethods, testInstance);
+    }
+
+    private Statement executingAfterMethods(Statement next, Object testInstance) {
+        List<MethodHandle> afterMethods = plan.afterMethods();
+        return afterMethods.isEmpty() ? next : new AfterInvoker(next, afterMethods, testInstance);
+    }
+
+    private Statement executingRules(Statement next, Object testInstance, Description description) throws Throwable {
+        if (!plan.hasRules()) {
+            return next;
+        }
+        List<TestRule> rules = plan.rules(testInstance);
+        return rules.isEmpty() ? next : new RuleInvoker(next, rules, description);
+    }
+
+    public static class MethodInvoker extends Statement {
+        private final MethodHandle method;
+        private final Object instance;
+
+        MethodInvoker(MethodHandle method, Object instance) {
+            this.method = method;
+            this.instance = instance;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            method.invokeExact(instance);
+        }
+    }
+
+    public static class ArgumentsInvoker extends Statement {
+        private final MethodHandle method;
+        private final Object instance;
+        private final Object[] arguments;
+
+        /**
+         * @param method a handle of type {@code (Object, Object[])void}.
+         */
+        ArgumentsInvoker(MethodHandle method, Object instance, Object[] arguments) {
+            this.method = method;
+            this.instance = instance;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            method.invokeExact(instance, arguments);
+        }
+    }
+
+    public static class IntArgumentInvoker extends Statement {
+        private final MethodHandle method;
+        private final Object instance;
+        private final int argument;
+
+        /**
+         * @param method a handle of type {@code (Object, int)void}.
+         */
+        IntArgumentInvoker(MethodHandle method, Object instance, int argument) {
+            this.method = method;
+            this.instance = instance;
+            this.argument = argument;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            method.invokeExact(instance, argument);
+        }
+    }
+
+    public static class BeforeInvoker extends Statement {
+        private final Statement next;
+        private final List<MethodHandle> beforeMethods;
+        private final Object test;
+
+        BeforeInvoker(Statement next, List<MethodHandle> beforeMethods, Object test) {
+            this.next = next;
+            this.beforeMethods = beforeMethods;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            for (MethodHandle before : beforeMethods) {
+                before.invokeExact(test);
+            }
+            next.evaluate();
+        }
+    }
+
+    public static class AfterInvoker extends Statement {
+        private final Statement next;
+        private final List<MethodHandle> afterMethods;
+        private final Object test;
+
+        AfterInvoker(Statement next, List<MethodHandle> afterMethods, Object test) {
+            this.next = next;
+            this.afterMethods = afterMethods;
+            this.test = test;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            List<Throwable> errors = new LinkedList<>();
+            try {
+                next.evaluate();
+            } catch (Throwable e) {
+                errors.add(e);
+            } finally {
+                for (MethodHandle after : afterMethods) {
+                    try {
+                        after.invokeExact(test);
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            }
+            MultipleFailureException.assertEmpty(errors);
+        }
+    }
+
+    public static class RuleInvoker extends Statement {
+        private final Statement statement;
+
+        RuleInvoker(Statement next, Iterable<TestRule> rules, Description description) {
+            statement = applyAll(next, rules, description);
+        }
+
+        private Statement applyAll(Statement next, Iterable<TestRule> rules, Description description) {
+            for (TestRule rule : rules) {
+                next = rule.apply(next, description);
+            }
+            return next;
+        }
+
+        @Override
+        public void evaluate() throws Throwable {
+            statement.evaluate();
+        }
+    }
+
+    public static class DeferredException extends Statement {
+        private final Throwable e;
+
+        DeferredException(Throwable e) {
+            this.e = e;
+        }
+
+        public void evaluate() throws Throwable {
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Runs each test case on a new virtual thread. The executor is looked up when the scheduler is first used so
+ * that the runner can still be built for, and run on, JVMs without virtual threads; these fall back to a bounded
+ * pool of platform threads instead.
+ */
+class VirtualThreadScheduler extends ExecutorScheduler {
+    static final int DEFAULT_MAX_CONCURRENT_CASES = 10_000;
+    static final int MAX_PLATFORM_THREADS = 256;
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private final int maxConcurrentCases;
+
+    VirtualThreadScheduler(int maxConcurrentCases) {
+        super(maxConcurrentCases);
+        this.maxConcurrentCases = maxConcurrentCases;
+    }
+
+    static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    @Override
+    ExecutorService newExecutor() {
+        if (isSupported()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+            } catch (UnsupportedOperationException e) {
+                // Virtual threads were a preview feature that may not be enabled.
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not create virtual thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(Math.min(maxConcurrentCases, MAX_PLATFORM_THREADS), new CaseThreadFactory());
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static class CaseThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "parameterised-case-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
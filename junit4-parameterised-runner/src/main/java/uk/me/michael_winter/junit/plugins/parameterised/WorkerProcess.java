@@ -0,0 +1,225 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import org.junit.internal.AssumptionViolatedException;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+import org.junit.runners.model.TestClass;
+import uk.me.michael_winter.junit.plugins.parameterised.WorkerProtocol.Event;
+import uk.me.michael_winter.junit.plugins.parameterised.WorkerProtocol.EventType;
+import uk.me.michael_winter.junit.plugins.parameterised.WorkerProtocol.Request;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the test cases requested by a {@link WorkerProcessScheduler} over standard input, reporting their progress
+ * over standard output. Anything the tests themselves print to standard output is sent to standard error instead.
+ * <p>
+ * The {@code @BeforeClass} methods and class rules of each test class are run before its first case, and its
+ * {@code @AfterClass} methods and the rest of its class rules once the scheduler closes standard input. Should they
+ * fail to set the class up, each of its cases fails in the same way.
+ */
+class WorkerProcess {
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Map<String, TestClass> testClasses = new HashMap<>();
+    private final Map<String, Throwable> classFailures = new HashMap<>();
+    private final Map<String, ExecutionPlan> plans = new HashMap<>();
+    private final Map<String, ParameterisedTestRunner> parameterisedRunners = new HashMap<>();
+
+    private WorkerProcess(DataInputStream in, DataOutputStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws Throwable {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+
+        new WorkerProcess(in, out).serve();
+    }
+
+    /**
+     * Runs requests until standard input is closed, running the rest of them within the class statements of the
+     * first request for a class not yet set up.
+     */
+    private void serve() throws Throwable {
+        for (Request request = next(); request != null; request = next()) {
+            if (!testClasses.containsKey(request.className) && !classFailures.containsKey(request.className)) {
+                serveWithinClass(request);
+                return;
+            }
+            run(request);
+        }
+    }
+
+    private void serveWithinClass(Request first) throws Throwable {
+        String className = first.className;
+        ParameterisedRunner runner;
+        try {
+            runner = new ParameterisedRunner(testClass(className));
+        } catch (InitializationError | RuntimeException e) {
+            classFailures.put(className, e);
+            run(first);
+            serve();
+            return;
+        }
+
+        boolean[] entered = {false};
+        boolean[] served = {false};
+        Statement session = runner.withClassStatements(new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                entered[0] = true;
+                testClasses.put(className, runner.getTestClass());
+                run(first);
+                serve();
+                served[0] = true;
+            }
+        });
+        try {
+            session.evaluate();
+        } catch (Throwable e) {
+            if (!entered[0]) {
+                classFailures.put(className, e);
+                run(first);
+                serve();
+            } else if (served[0]) {
+                System.err.println("Could not tear down " + className + ": " + e);
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    private Request next() throws IOException, ClassNotFoundException {
+        try {
+            return (Request) WorkerProtocol.read(in);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private void run(Request request) throws IOException {
+        RunNotifier notifier = new EventNotifier();
+        Throwable failure = classFailures.get(request.className);
+        TestCaseRunner testCase = null;
+        if (failure == null) {
+            try {
+                testCase = caseFor(request);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (testCase != null) {
+            testCase.run(notifier);
+        } else {
+            notifier.fireTestStarted(null);
+            if (failure instanceof AssumptionViolatedException) {
+                notifier.fireTestAssumptionFailed(new Failure(null, failure));
+            } else {
+                notifier.fireTestFailure(new Failure(null, failure));
+            }
+            notifier.fireTestFinished(null);
+        }
+        send(new Event(EventType.DONE, null));
+    }
+
+    private TestCaseRunner caseFor(Request request) {
+        TestClass testClass = testClasses.get(request.className);
+        ExecutionPlan plan = plans.computeIfAbsent(request.className, name -> new ExecutionPlan(testClass));
+        FrameworkMethod method = testClass.getAnnotatedMethods(Test.class)
+                .stream()
+                .filter(candidate -> candidate.getName().equals(request.methodName))
+                .filter(candidate -> candidate.getMethod().getParameterCount() == request.arguments.length)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No test method " + request.methodName
+                        + " in " + request.className));
+        if (request.arguments.length == 0) {
+            return new NonParameterisedTestRunner(plan, method);
+        }
+        return parameterisedRunners
+                .computeIfAbsent(request.className + "#" + request.methodName,
+                        key -> new ParameterisedTestRunner(plan, method))
+                .newCase(request.arguments);
+    }
+
+    private static Class<?> testClass(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("No test class " + className, e);
+        }
+    }
+
+    private void send(Event event) throws IOException {
+        byte[] message;
+        try {
+            message = WorkerProtocol.serialize(event);
+        } catch (IOException e) {
+            message = WorkerProtocol.serialize(new Event(event.type, serializable(event.exception)));
+        }
+        WorkerProtocol.write(out, message);
+    }
+
+    /**
+     * Replaces an exception that cannot be serialised with one keeping its message and stack trace.
+     */
+    private static Throwable serializable(Throwable exception) {
+        Throwable replacement = exception instanceof AssertionError
+                ? new AssertionError(exception.toString())
+                : new Exception(exception.toString());
+        replacement.setStackTrace(exception.getStackTrace());
+        return replacement;
+    }
+
+    private class EventNotifier extends RunNotifier {
+        @Override
+        public void fireTestStarted(Description description) {
+            sendUnchecked(new Event(EventType.STARTED, null));
+        }
+
+        @Override
+        public void fireTestFailure(Failure failure) {
+            sendUnchecked(new Event(EventType.FAILED, failure.getException()));
+        }
+
+        @Override
+        public void fireTestAssumptionFailed(Failure failure) {
+            sendUnchecked(new Event(EventType.ASSUMPTION_FAILED, failure.getException()));
+        }
+
+        @Override
+        public void fireTestIgnored(Description description) {
+            sendUnchecked(new Event(EventType.IGNORED, null));
+        }
+
+        @Override
+        public void fireTestFinished(Description description) {
+            sendUnchecked(new Event(EventType.FINISHED, null));
+        }
+
+        private void sendUnchecked(Event event) {
+            try {
+                send(event);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
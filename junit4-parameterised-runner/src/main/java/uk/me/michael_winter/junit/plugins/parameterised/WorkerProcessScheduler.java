@@ -0,0 +1,290 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import uk.me.michael_winter.junit.plugins.parameterised.WorkerProtocol.Event;
+import uk.me.michael_winter.junit.plugins.parameterised.WorkerProtocol.Request;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs test cases in a pool of worker JVMs, started on demand with the class path and JVM arguments of this one.
+ * <p>
+ * Each worker is fed by a thread here, which takes the next queued case as soon as its worker has finished the last
+ * so that long cases do not hold up the others. Progress is reported to the notifier of each case as it arrives. A
+ * worker that exits while running a case fails that case and is replaced for the next. Cases whose arguments cannot
+ * be serialised are run by the calling thread, and those of workers that cannot be started by the thread feeding
+ * them, which reports the failure to start on standard error. Results are cached, if at all, by this JVM rather than by the workers.
+ */
+final class WorkerProcessScheduler extends CaseScheduler {
+    private static final Task STOP = new Task(null, null, null);
+    private static final List<String> UNSHARED_JVM_ARGUMENTS = Arrays.asList(
+            "-agentlib", "-agentpath", "-javaagent", "-Xdebug", "-Xrunjdwp");
+
+    private final int workers;
+    private final int capacity;
+    private final Semaphore inFlight;
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    WorkerProcessScheduler(int workers) {
+        this.workers = workers;
+        this.capacity = workers * 2;
+        this.inFlight = new Semaphore(capacity);
+    }
+
+    @Override
+    public void execute(Runnable testCase) {
+        testCase.run();
+    }
+
+    @Override
+    void execute(TestCaseRunner testCase, RunNotifier notifier) {
+        byte[] request = testCase.isIgnored() || testCase.hasPassedBefore() ? null : request(testCase);
+        if (request == null) {
+            testCase.run(notifier);
+            return;
+        }
+        inFlight.acquireUninterruptibly();
+        startWorkers();
+        queue.add(new Task(testCase, notifier, request));
+    }
+
+    @Override
+    public void finished() {
+        inFlight.acquireUninterruptibly(capacity);
+        inFlight.release(capacity);
+        stopWorkers();
+        rethrow(failure.getAndSet(null));
+    }
+
+    private static byte[] request(TestCaseRunner testCase) {
+        try {
+            return WorkerProtocol.serialize(new Request(
+                    testCase.testClass().getName(),
+                    testCase.method().getName(),
+                    testCase.arguments()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void startWorkers() {
+        if (threads.isEmpty()) {
+            for (int i = 0; i < workers; i++) {
+                Thread thread = new Thread(new Worker(), "parameterised-worker-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+        }
+    }
+
+    private void stopWorkers() {
+        threads.forEach(thread -> queue.add(STOP));
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+    }
+
+    private static List<String> workerCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean()
+                .getInputArguments()
+                .stream()
+                .filter(argument -> UNSHARED_JVM_ARGUMENTS.stream().noneMatch(argument::startsWith))
+                .filter(argument -> !argument.startsWith("-D" + RunnerProperties.RESULT_CACHE + "="))
+                .collect(toList()));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(WorkerProcess.class.getName());
+        return command;
+    }
+
+    private class Worker implements Runnable {
+        private Process process = null;
+        private DataOutputStream out = null;
+        private DataInputStream in = null;
+        private boolean local = false;
+
+        @Override
+        public void run() {
+            try {
+                for (Task task = queue.take(); task != STOP; task = queue.take()) {
+                    try {
+                        run(task);
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stop();
+            }
+        }
+
+        private void run(Task task) {
+            if (!local && process == null) {
+                try {
+                    start();
+                } catch (IOException e) {
+                    System.err.println("Could not start a worker process, running its cases in this JVM: " + e);
+                    local = true;
+                }
+            }
+            if (local || FailureBudget.of(task.notifier).isSpent()) {
+                task.testCase.run(task.notifier);
+                return;
+            }
+
+            try {
+                WorkerProtocol.write(out, task.request);
+                for (Event event = (Event) WorkerProtocol.read(in);
+                     event.type != WorkerProtocol.EventType.DONE;
+                     event = (Event) WorkerProtocol.read(in)) {
+                    task.report(event);
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                process.destroyForcibly();
+                stop();
+                task.fail(new IllegalStateException("Worker process failed while running "
+                        + task.testCase.getDescription(), e));
+            }
+        }
+
+        private void start() throws IOException {
+            process = new ProcessBuilder(workerCommand()).start();
+            out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+
+            Thread errors = new Thread(() -> copyToStandardError(process.getErrorStream()),
+                    Thread.currentThread().getName() + "-stderr");
+            errors.setDaemon(true);
+            errors.start();
+        }
+
+        private void stop() {
+            if (process == null) {
+                return;
+            }
+            try {
+                out.close();
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            } finally {
+                process = null;
+                out = null;
+                in = null;
+            }
+        }
+
+        private void copyToStandardError(InputStream errors) {
+            byte[] buffer = new byte[8192];
+            try {
+                for (int read = errors.read(buffer); read >= 0; read = errors.read(buffer)) {
+                    System.err.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                // The worker has exited.
+            } finally {
+                System.err.flush();
+            }
+        }
+    }
+
+    private static class Task {
+        private final TestCaseRunner testCase;
+        private final RunNotifier notifier;
+        private final byte[] request;
+        private boolean started = false;
+        private boolean failed = false;
+        private boolean finished = false;
+
+        Task(TestCaseRunner testCase, RunNotifier notifier, byte[] request) {
+            this.testCase = testCase;
+            this.notifier = notifier;
+            this.request = request;
+        }
+
+        void report(Event event) {
+            Description description = testCase.getDescription();
+            switch (event.type) {
+                case STARTED:
+                    started = true;
+                    notifier.fireTestStarted(description);
+                    break;
+                case FAILED:
+                    failed = true;
+                    notifier.fireTestFailure(new Failure(description, event.exception));
+                    break;
+                case ASSUMPTION_FAILED:
+                    failed = true;
+                    notifier.fireTestAssumptionFailed(new Failure(description, event.exception));
+                    break;
+                case IGNORED:
+                    finished = true;
+                    notifier.fireTestIgnored(description);
+                    break;
+                case FINISHED:
+                    finished = true;
+                    if (started && !failed) {
+                        testCase.recordPassed();
+                    }
+                    notifier.fireTestFinished(description);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Fails the case after its worker has exited, unless the worker had already reported the case finished.
+         */
+        void fail(Throwable e) {
+            if (finished) {
+                return;
+            }
+            Description description = testCase.getDescription();
+            if (!started) {
+                notifier.fireTestStarted(description);
+            }
+            notifier.fireTestFailure(new Failure(description, e));
+            notifier.fireTestFinished(description);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+
+/**
+ * The messages exchanged between a {@link WorkerProcessScheduler} and its {@link WorkerProcess}es.
+ * <p>
+ * Each message is serialised in full before it is written, prefixed by its length, so that a message that cannot be
+ * serialised leaves the stream intact.
+ */
+final class WorkerProtocol {
+    private WorkerProtocol() {
+    }
+
+    /**
+     * Asks a worker to run a single test case.
+     */
+    static final class Request implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String className;
+        final String methodName;
+        final Object[] arguments;
+
+        Request(String className, String methodName, Object[] arguments) {
+            this.className = className;
+            this.methodName = methodName;
+            this.arguments = arguments;
+        }
+    }
+
+    enum EventType {
+        STARTED,
+        FAILED,
+        ASSUMPTION_FAILED,
+        IGNORED,
+        FINISHED,
+        /**
+         * Sent once the worker has finished with a request and is ready for the next.
+         */
+        DONE
+    }
+
+    /**
+     * Reports the progress of the case being run by a worker.
+     */
+    static final class Event implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final EventType type;
+        final Throwable exception;
+
+        Event(EventType type, Throwable exception) {
+            this.type = type;
+            this.exception = exception;
+        }
+    }
+
+    static byte[] serialize(Serializable message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+
+    static void write(DataOutputStream out, byte[] message) throws IOException {
+        out.writeInt(message.length);
+        out.write(message);
+        out.flush();
+    }
+
+    static Object read(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte[] message = new byte[in.readInt()];
+        in.readFully(message);
+        try (ObjectInputStream objects = new ClassLoaderObjectInputStream(new ByteArrayInputStream(message))) {
+            return objects.readObject();
+        }
+    }
+
+    /**
+     * Resolves classes, such as exceptions thrown by tests, using the loader of the runner rather than that of the
+     * caller.
+     */
+    private static class ClassLoaderObjectInputStream extends ObjectInputStream {
+        ClassLoaderObjectInputStream(ByteArrayInputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(description.getName(), false, WorkerProtocol.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(description);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Reports all the cases of a parameterised test method as a single test, which fails with each failure of its
+ * cases. Use this, or the {@code junit.parameterised.collapseCases} system property, to keep the number of tests
+ * seen by IDEs and build tools from growing with the number of cases.
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface CollapseCases {
+}
@@ -0,0 +1,22 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Runs parameterised test methods with a covering array of their parameter values instead of every combination.
+ * Each combination of values of any {@code strength} parameters appears in at least one case, so the default
+ * covers every pair. The cases are the same on every run.
+ * <p>
+ * The values of every parameter are collected before the first case runs, so they cannot come from files or from
+ * factory methods whose values are not cached. An annotation on a method takes precedence over one on its class.
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface CoveringArray {
+    int strength() default 2;
+}
@@ -0,0 +1,29 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Selects how the tests of a class are executed, overriding the {@code junit.parameterised.execution} system
+ * property.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface Execution {
+    ExecutionMode value();
+
+    /**
+     * The number of threads, or worker processes, used to run tests in parallel, or zero to use one per available
+     * processor.
+     */
+    int parallelism() default 0;
+
+    /**
+     * The maximum number of test cases run at once using {@link ExecutionMode#VIRTUAL_THREADS}, or zero to use the
+     * default.
+     */
+    int maxConcurrentCases() default 0;
+}
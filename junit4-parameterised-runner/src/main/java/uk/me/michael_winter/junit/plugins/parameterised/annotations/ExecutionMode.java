@@ -0,0 +1,16 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+public enum ExecutionMode {
+    SEQUENTIAL,
+    PARALLEL,
+    /**
+     * Runs each test case on its own virtual thread, or on a bounded thread pool where virtual threads are not
+     * supported by the JVM.
+     */
+    VIRTUAL_THREADS,
+    /**
+     * Hands test cases to a pool of worker JVMs, each taking the next case as soon as it finishes the last. Cases
+     * whose arguments cannot be serialised are run by the calling JVM.
+     */
+    WORKER_PROCESSES
+}
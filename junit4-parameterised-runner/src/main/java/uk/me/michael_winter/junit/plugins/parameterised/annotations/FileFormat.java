@@ -0,0 +1,13 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+public enum FileFormat {
+    /**
+     * Rows of comma-separated fields, ending at a line feed, with fields optionally enclosed in double quotes and
+     * double quotes within them doubled. Blank lines are skipped.
+     */
+    CSV,
+    /**
+     * Records of a fixed number of bytes, one after another.
+     */
+    BINARY
+}
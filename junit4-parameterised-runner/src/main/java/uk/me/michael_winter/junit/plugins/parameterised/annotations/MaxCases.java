@@ -0,0 +1,19 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Limits the number of cases run for each parameterised test method, overriding the
+ * {@code junit.parameterised.maxCases} system property. Cases are generated in order and those beyond the limit
+ * are not run. An annotation on a method takes precedence over one on its class.
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface MaxCases {
+    long value();
+}
@@ -0,0 +1,19 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Skips the remaining tests once this many failures have been reported, reporting them as ignored. On a method this
+ * limits the failures of its cases, overriding the {@code junit.parameterised.maxFailuresPerMethod} system property;
+ * on a class it limits those of all its tests, overriding {@code junit.parameterised.maxFailuresPerClass}.
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface MaxFailures {
+    long value();
+}
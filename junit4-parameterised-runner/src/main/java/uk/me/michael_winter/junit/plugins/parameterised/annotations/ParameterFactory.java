@@ -0,0 +1,30 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Provides the values generated by the public static method named {@code value}, of the test class or of
+ * {@code type}, which takes no arguments and returns a {@link java.util.stream.Stream},
+ * {@link java.util.stream.IntStream}, {@link java.util.Iterator} or {@link java.util.Spliterator} of them.
+ * <p>
+ * Values are taken only as cases are generated, so the method may return an unbounded sequence to be cut short by
+ * {@link MaxCases}. It is called again whenever the values are needed from the first, and what it returns is closed,
+ * if it can be, once it is exhausted or the cases of the test method have all been generated.
+ * <p>
+ * The values of a {@code cached} factory, which must be finite, are instead generated once and shared by every test
+ * run by the JVM, for as long as memory allows.
+ */
+@ParameterValuesProvider
+@Retention(RUNTIME)
+@Target(PARAMETER)
+public @interface ParameterFactory {
+    String value();
+
+    Class<?> type() default void.class;
+
+    boolean cached() default false;
+}
@@ -0,0 +1,42 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Provides the rows of a file, one for each case. The file is memory-mapped and each row read only as its case is
+ * generated, so files too large to be held in memory can be used.
+ * <p>
+ * The rows of a {@link FileFormat#CSV} file are provided as the {@code String[]} of their fields. The records of a
+ * {@link FileFormat#BINARY} file are provided as read-only {@link java.nio.ByteBuffer}s of {@code recordSize} bytes
+ * over the mapped file itself, from which fixed-width columns can be read without copying.
+ */
+@ParameterValuesProvider
+@Retention(RUNTIME)
+@Target(PARAMETER)
+public @interface ParameterFileRows {
+    /**
+     * The path of the file, relative to the working directory or, failing that, to the class path.
+     */
+    String value();
+
+    FileFormat format() default FileFormat.CSV;
+
+    /**
+     * The size in bytes of each record of a binary file. A partial record at the end of the file is ignored.
+     */
+    int recordSize() default 0;
+
+    /**
+     * Whether the first row of a CSV file names its columns rather than providing values.
+     */
+    boolean header() default false;
+
+    /**
+     * Whether the records of a binary file are in little-endian rather than big-endian byte order.
+     */
+    boolean littleEndian() default false;
+}
@@ -0,0 +1,23 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Provides every {@code step}th value from {@code from} (inclusive) to {@code to} (exclusive). The values are
+ * generated as they are needed, so large ranges use no more memory than small ones. A negative {@code step}
+ * counts down.
+ */
+@ParameterValuesProvider
+@Retention(RUNTIME)
+@Target(PARAMETER)
+public @interface ParameterIntRange {
+    int from() default 0;
+
+    int to();
+
+    int step() default 1;
+}
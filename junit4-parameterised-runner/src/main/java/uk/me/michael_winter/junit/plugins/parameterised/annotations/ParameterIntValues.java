@@ -1,6 +1,14 @@
 package uk.me.michael_winter.junit.plugins.parameterised.annotations;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
 @ParameterValuesProvider
+@Retention(RUNTIME)
+@Target(PARAMETER)
 public @interface ParameterIntValues {
     int[] value();
 }
@@ -1,9 +1,15 @@
 package uk.me.michael_winter.junit.plugins.parameterised.annotations;
 
+import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
+/**
+ * Marks an annotation that provides the values of a test method parameter.
+ */
+@Retention(RUNTIME)
 @Target(ANNOTATION_TYPE)
-@interface ParameterValuesProvider {
+public @interface ParameterValuesProvider {
 }
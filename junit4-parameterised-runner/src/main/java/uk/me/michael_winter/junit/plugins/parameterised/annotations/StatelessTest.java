@@ -0,0 +1,17 @@
+package uk.me.michael_winter.junit.plugins.parameterised.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a test class whose tests do not change the state of its instances, so that a single instance may be shared
+ * by all its tests and cases rather than one created for each. Where tests run in parallel, each thread has its own
+ * instance. Instances are dropped once the class has run. Rules are still fetched from the instance for every test.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface StatelessTest {
+}
@@ -0,0 +1,35 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryFileSourceTest {
+    private final BinaryFileSource source = new BinaryFileSource(Paths.get("records.bin"), 4096, ByteOrder.BIG_ENDIAN);
+
+    @Test
+    public void shouldNameShortRecordsByEveryByte() {
+        assertThat(source.nameOf(ByteBuffer.wrap(new byte[]{0x00, 0x1f, (byte) 0xa0})))
+                .isEqualTo("001fa0");
+    }
+
+    @Test
+    public void shouldNameLongRecordsByTheirFirstBytesAndAHashOfEveryByte() {
+        byte[] record = new byte[4096];
+        record[0] = 0x7f;
+        byte[] other = record.clone();
+        other[4095] = 1;
+
+        String name = source.nameOf(ByteBuffer.wrap(record));
+
+        assertThat(name)
+                .startsWith("7f000000000000000000000000000000...#")
+                .hasSize(16 * 2 + 4 + 16);
+        assertThat(source.nameOf(ByteBuffer.wrap(other)))
+                .isNotEqualTo(name);
+    }
+}
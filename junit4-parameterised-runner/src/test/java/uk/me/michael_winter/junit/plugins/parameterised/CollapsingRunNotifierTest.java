@@ -0,0 +1,89 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class CollapsingRunNotifierTest {
+    private final RunNotifier runNotifier = mock(RunNotifier.class);
+    private final Description method = Description.createTestDescription(CollapsedCasesExample.class, "aValidTest");
+    private final CollapsingRunNotifier notifier = new CollapsingRunNotifier(runNotifier, method);
+
+    @Test
+    public void shouldReportAnAssumptionFailureOfTheMethodWhenNoCaseRan() {
+        failAssumption(caseOf(1));
+        failAssumption(caseOf(2));
+        notifier.allCasesDispatched();
+
+        ArgumentCaptor<Failure> failure = ArgumentCaptor.forClass(Failure.class);
+        InOrder inOrder = inOrder(runNotifier);
+        inOrder.verify(runNotifier).fireTestStarted(method);
+        inOrder.verify(runNotifier).fireTestAssumptionFailed(failure.capture());
+        inOrder.verify(runNotifier).fireTestFinished(method);
+        verifyNoMoreInteractions(runNotifier);
+
+        assertThat(failure.getValue().getDescription())
+                .isEqualTo(method);
+        assertThat(failure.getValue().getException())
+                .isInstanceOf(AssumptionViolatedException.class)
+                .hasMessageContaining("aValidTest[1]");
+    }
+
+    @Test
+    public void shouldNotReportAssumptionFailuresOfCasesWhenAnotherCaseRan() {
+        failAssumption(caseOf(1));
+        run(caseOf(2));
+        notifier.allCasesDispatched();
+
+        verify(runNotifier).fireTestStarted(method);
+        verify(runNotifier).fireTestFinished(method);
+        verifyNoMoreInteractions(runNotifier);
+    }
+
+    @Test
+    public void shouldReportTheMethodAsIgnoredWhenEveryCaseWasSkipped() {
+        skip(caseOf(1));
+        skip(caseOf(2));
+        notifier.allCasesDispatched();
+
+        verify(runNotifier).fireTestIgnored(method);
+        verifyNoMoreInteractions(runNotifier);
+    }
+
+    @Test
+    public void shouldReportTheMethodAsIgnoredWhenNoCaseWasDispatched() {
+        notifier.allCasesDispatched();
+
+        verify(runNotifier).fireTestIgnored(method);
+        verifyNoMoreInteractions(runNotifier);
+    }
+
+    private static Description caseOf(int value) {
+        return Description.createTestDescription(CollapsedCasesExample.class, "aValidTest[" + value + "]");
+    }
+
+    private void run(Description testCase) {
+        notifier.expectCase();
+        notifier.fireTestStarted(testCase);
+        notifier.fireTestFinished(testCase);
+    }
+
+    private void skip(Description testCase) {
+        notifier.expectCase();
+        notifier.fireTestIgnored(testCase);
+    }
+
+    private void failAssumption(Description testCase) {
+        notifier.expectCase();
+        notifier.fireTestStarted(testCase);
+        notifier.fireTestAssumptionFailed(new Failure(testCase, new AssumptionViolatedException("skipped")));
+        notifier.fireTestFinished(testCase);
+    }
+}
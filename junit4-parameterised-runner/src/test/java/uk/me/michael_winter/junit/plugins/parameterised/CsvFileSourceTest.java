@@ -0,0 +1,36 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvFileSourceTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldDropCarriageReturnsOnlyAtTheEndsOfLines() throws Exception {
+        File file = temporaryFolder.newFile("rows.csv");
+        Files.write(file.toPath(), "a\rb,c\r\nd,e\r".getBytes(StandardCharsets.UTF_8));
+
+        List<String[]> rows = new ArrayList<>();
+        Iterator<?> iterator = new CsvFileSource(file.toPath(), false).iterator();
+        try {
+            iterator.forEachRemaining(row -> rows.add((String[]) row));
+        } finally {
+            ParameterSource.close(iterator);
+        }
+
+        assertThat(rows)
+                .containsExactly(new String[]{"a\rb", "c"}, new String[]{"d", "e"});
+    }
+}
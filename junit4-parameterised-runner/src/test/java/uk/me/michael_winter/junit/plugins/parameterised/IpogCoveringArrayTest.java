@@ -0,0 +1,111 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IpogCoveringArrayTest {
+    @Test
+    public void shouldCoverEveryPairOfValues() {
+        IpogCoveringArray array = new IpogCoveringArray(parameters(10, 3), 2);
+
+        assertThat(uncoveredCombinations(array, 10, 3, 2)).isZero();
+    }
+
+    @Test
+    public void shouldCoverEveryTripleOfValuesWithStrengthThree() {
+        IpogCoveringArray array = new IpogCoveringArray(parameters(6, 3), 3);
+
+        assertThat(uncoveredCombinations(array, 6, 3, 3)).isZero();
+    }
+
+    @Test
+    public void shouldNeedFarFewerCasesThanEveryCombination() {
+        IpogCoveringArray array = new IpogCoveringArray(parameters(10, 3), 2);
+
+        assertThat(array.size()).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    public void shouldCoverDozensOfParameters() {
+        IpogCoveringArray array = new IpogCoveringArray(parameters(40, 4), 2);
+
+        assertThat(uncoveredCombinations(array, 40, 4, 2)).isZero();
+        assertThat(array.size()).isLessThan(60);
+    }
+
+    @Test
+    public void shouldGenerateTheSameCasesEveryTime() {
+        List<List<Object>> first = rows(new IpogCoveringArray(parameters(8, 4), 2));
+        List<List<Object>> second = rows(new IpogCoveringArray(parameters(8, 4), 2));
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    public void shouldContainEveryCombinationIfStrengthIsNotLessThanParameterCount() {
+        IpogCoveringArray array = new IpogCoveringArray(parameters(2, 3), 3);
+
+        assertThat(array.size()).isEqualTo(9);
+    }
+
+    @Test
+    public void shouldBeEmptyIfAnyParameterHasNoValues() {
+        List<ParameterSource> sources = new ArrayList<>(parameters(3, 2));
+        sources.add(new IntArraySource(new int[0]));
+
+        IpogCoveringArray array = new IpogCoveringArray(sources, 2);
+
+        assertThat(array).isEmpty();
+    }
+
+    private static List<ParameterSource> parameters(int count, int values) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new IntRangeSource(0, values, 1))
+                .collect(Collectors.toList());
+    }
+
+    private static List<List<Object>> rows(IpogCoveringArray array) {
+        List<List<Object>> rows = new ArrayList<>();
+        array.forEach(row -> rows.add(Arrays.asList(row)));
+        return rows;
+    }
+
+    private static int uncoveredCombinations(IpogCoveringArray array, int parameters, int values, int strength) {
+        List<List<Object>> rows = rows(array);
+        int uncovered = 0;
+        for (int[] subset : subsets(parameters, strength)) {
+            Set<List<Object>> covered = new HashSet<>();
+            for (List<Object> row : rows) {
+                covered.add(Arrays.stream(subset).mapToObj(row::get).collect(Collectors.toList()));
+            }
+            uncovered += (int) Math.pow(values, strength) - covered.size();
+        }
+        return uncovered;
+    }
+
+    private static List<int[]> subsets(int parameters, int strength) {
+        List<int[]> subsets = new ArrayList<>();
+        addSubsets(subsets, new int[strength], 0, 0, parameters);
+        return subsets;
+    }
+
+    private static void addSubsets(List<int[]> subsets, int[] subset, int position, int first, int parameters) {
+        if (position == subset.length) {
+            subsets.add(subset.clone());
+            return;
+        }
+        for (int i = first; i < parameters; i++) {
+            subset[position] = i;
+            addSubsets(subsets, subset, position + 1, i + 1, parameters);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+    @Test
+    public void shouldEstimatePercentilesWithinSevenPercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat((double) histogram.percentile(0.5)).isCloseTo(50_000_000, within(3_500_000.0));
+        assertThat((double) histogram.percentile(0.99)).isCloseTo(99_000_000, within(6_930_000.0));
+        assertThat(histogram.max()).isEqualTo(100_000_000);
+    }
+
+    @Test
+    public void shouldNotEstimatePercentilesAboveTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        assertThat(histogram.percentile(0.99)).isEqualTo(1_000_001);
+    }
+
+    @Test
+    public void shouldReportZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.percentile(0.5)).isZero();
+        assertThat(histogram.max()).isZero();
+    }
+}
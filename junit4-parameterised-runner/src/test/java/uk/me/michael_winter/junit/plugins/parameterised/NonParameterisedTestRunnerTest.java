@@ -11,7 +11,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
@@ -117,6 +121,22 @@ public class NonParameterisedTestRunnerTest extends AbstractRunnerTest<NonParame
                 .hasMessageContaining("expected to fail");
     }
 
+    @Test
+    public void shouldIncludeTheImmediateCauseOfFailureWhenConstructingTheTest() {
+        Runner runner = forValidTest(FailingConstructorExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Failure> failureArgumentCaptor = ArgumentCaptor.forClass(Failure.class);
+        verify(runNotifier).fireTestFailure(failureArgumentCaptor.capture());
+        Throwable cause = failureArgumentCaptor.getValue().getException();
+
+        assertThat(cause)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expected to fail");
+    }
+
     @Test
     public void shouldSendFailureLifecycleEventNotificationsInOrder() {
         Runner runner = forFailingTest(FailingTestExample.class);
@@ -179,6 +199,37 @@ public class NonParameterisedTestRunnerTest extends AbstractRunnerTest<NonParame
                 .hasMessageContaining("expected to fail");
     }
 
+    @Test
+    public void shouldNotAllocateWhenRunningTestsWithoutRules() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+        Runner runner = forValidTest(AllocationFreeExample.class);
+        RunNotifier runNotifier = new RunNotifier() {
+            @Override
+            public void fireTestStarted(Description description) {
+            }
+
+            @Override
+            public void fireTestFinished(Description description) {
+            }
+        };
+        for (int i = 0; i < 10_000; i++) {
+            runner.run(runNotifier);
+        }
+
+        long allocatedBefore = allocations.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) {
+            runner.run(runNotifier);
+        }
+        long allocated = allocations.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        assertThat(allocated / 100_000.0)
+                .isLessThan(1.0);
+    }
+
     @Test
     public void shouldEvaluateRuleFieldsForEachTest() {
         Runner runner = forValidTest(RuleFieldExample.class);
@@ -3,9 +3,25 @@ package uk.me.michael_winter.junit.plugins.parameterised;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.notNull;
@@ -16,6 +32,9 @@ public class ParameterisedRunnerTest {
     @Rule
     public final ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void shouldCountEveryNonParameterisedTestOnce() throws Exception {
         Runner runner = new ParameterisedRunner(TestExample.class);
@@ -52,6 +71,13 @@ public class ParameterisedRunnerTest {
         assertThat(suite).isTrue();
     }
 
+    @Test
+    public void shouldReuseTheDescriptionOfTheClassUnderTest() throws Exception {
+        Runner runner = new ParameterisedRunner(ParameterIntValuesExample.class);
+
+        assertThat(runner.getDescription()).isSameAs(runner.getDescription());
+    }
+
     @Test
     public void shouldNotDescribeAMethodForTheClassUnderTest() throws Exception {
         Runner runner = new ParameterisedRunner(TestExample.class);
@@ -276,6 +302,14 @@ public class ParameterisedRunnerTest {
         new ParameterisedRunner(InvalidArgumentReceivingConstructorExample.class);
     }
 
+    @Test
+    public void shouldFailOnConstructionIfCoveringArrayParameterIsUnbounded() throws Exception {
+        expectedException.expect(InitializationError.class);
+        expectedException.expect(anInitialisationErrorMessageContaining("covering array"));
+
+        new ParameterisedRunner(InvalidUnboundedCoveringArrayExample.class);
+    }
+
     @Test
     public void shouldFailOnConstructionIfNoSuitableRunnerCanBeFoundForTest() throws Exception {
         expectedException.expect(UnsupportedOperationException.class);
@@ -284,6 +318,29 @@ public class ParameterisedRunnerTest {
         new ParameterisedRunner(ParameterisedTestExample.class);
     }
 
+    @Test
+    public void shouldRunEveryCaseOfParameterisedTests() throws Exception {
+        Runner runner = new ParameterisedRunner(ParameterIntValuesExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(6)).fireTestFinished(notNull());
+        verify(runNotifier).fireTestFailure(notNull());
+        verify(runNotifier).fireTestIgnored(notNull());
+    }
+
+    @Test
+    public void shouldRunEveryCaseOfTestsWithSeveralParameters() throws Exception {
+        Runner runner = new ParameterisedRunner(CartesianProductExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(10)).fireTestFinished(notNull());
+        verify(runNotifier, never()).fireTestFailure(any());
+    }
+
     @Test
     public void shouldSkipIgnoredTests() throws Exception {
         Runner runner = new ParameterisedRunner(IgnoredTestMethodExample.class);
@@ -293,4 +350,380 @@ public class ParameterisedRunnerTest {
 
         verify(runNotifier).fireTestIgnored(notNull());
     }
+
+    @Test
+    public void shouldRunTestsConcurrentlyWhenAnnotatedForParallelExecution() throws Exception {
+        Runner runner = new ParameterisedRunner(ParallelExecutionExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, never()).fireTestFailure(any());
+        verify(runNotifier, times(2)).fireTestFinished(notNull());
+    }
+
+    @Test
+    public void shouldRunTestsConcurrentlyWhenParallelExecutionIsSelectedBySystemProperty() throws Exception {
+        System.setProperty(RunnerProperties.EXECUTION, "parallel");
+        System.setProperty(RunnerProperties.PARALLELISM, "2");
+        Runner runner;
+        try {
+            runner = new ParameterisedRunner(ConcurrentTestExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.EXECUTION);
+            System.clearProperty(RunnerProperties.PARALLELISM);
+        }
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, never()).fireTestFailure(any());
+        verify(runNotifier, times(2)).fireTestFinished(notNull());
+    }
+
+    @Test
+    public void shouldFailOnConstructionIfExecutionSystemPropertyIsUnknown() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RunnerProperties.EXECUTION);
+
+        System.setProperty(RunnerProperties.EXECUTION, "sideways");
+        try {
+            new ParameterisedRunner(TestExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.EXECUTION);
+        }
+    }
+
+    @Test
+    public void shouldLimitConcurrentTestsWhenAnnotatedForVirtualThreadExecution() throws Exception {
+        Runner runner = new ParameterisedRunner(VirtualThreadExecutionExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, never()).fireTestFailure(any());
+        verify(runNotifier, times(3)).fireTestFinished(notNull());
+        assertThat(VirtualThreadExecutionExample.maxConcurrentTests()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldScheduleEveryCaseWithASchedulerSetByTheBuildTool() throws Exception {
+        ParameterisedRunner runner = new ParameterisedRunner(ParameterIntValuesExample.class);
+        RunnerScheduler scheduler = mock(RunnerScheduler.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(scheduler).schedule(any());
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.setScheduler(scheduler);
+        runner.run(runNotifier);
+
+        verify(scheduler, times(6)).schedule(notNull());
+        verify(scheduler).finished();
+        verify(runNotifier, times(6)).fireTestFinished(notNull());
+    }
+
+    @Test
+    public void shouldRunEveryTestInExactlyOneShard() throws Exception {
+        List<Description> started = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            System.setProperty(RunnerProperties.SHARD_INDEX, String.valueOf(shard));
+            System.setProperty(RunnerProperties.SHARD_COUNT, "3");
+            Runner runner;
+            try {
+                runner = new ParameterisedRunner(ShardedExample.class);
+            } finally {
+                System.clearProperty(RunnerProperties.SHARD_INDEX);
+                System.clearProperty(RunnerProperties.SHARD_COUNT);
+            }
+            RunNotifier runNotifier = mock(RunNotifier.class);
+            ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+
+            runner.run(runNotifier);
+
+            verify(runNotifier, atLeastOnce()).fireTestStarted(descriptionArgumentCaptor.capture());
+            assertThat(descriptionArgumentCaptor.getAllValues()).hasSizeLessThan(152);
+            started.addAll(descriptionArgumentCaptor.getAllValues());
+        }
+
+        assertThat(started)
+                .hasSize(152)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void shouldFailOnConstructionIfShardIndexIsOutOfRange() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Shard index");
+
+        System.setProperty(RunnerProperties.SHARD_INDEX, "3");
+        System.setProperty(RunnerProperties.SHARD_COUNT, "3");
+        try {
+            new ParameterisedRunner(TestExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.SHARD_INDEX);
+            System.clearProperty(RunnerProperties.SHARD_COUNT);
+        }
+    }
+
+    @Test
+    public void shouldRunTestsInWorkerProcessesWhenAnnotatedForWorkerProcessExecution() throws Exception {
+        Runner runner = new ParameterisedRunner(WorkerProcessExecutionExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Failure> failureArgumentCaptor = ArgumentCaptor.forClass(Failure.class);
+        verify(runNotifier, times(6)).fireTestStarted(notNull());
+        verify(runNotifier, times(2)).fireTestFailure(failureArgumentCaptor.capture());
+        verify(runNotifier, times(6)).fireTestFinished(notNull());
+
+        assertThat(failureArgumentCaptor.getAllValues())
+                .extracting(failure -> failure.getDescription().getMethodName())
+                .containsExactlyInAnyOrder("aFailingTest", "anExitingTest[1]");
+        assertThat(failureArgumentCaptor.getAllValues())
+                .filteredOn(failure -> failure.getDescription().getMethodName().equals("aFailingTest"))
+                .extracting(Failure::getException)
+                .allSatisfy(exception -> assertThat(exception)
+                        .isInstanceOf(AssertionError.class)
+                        .hasMessageNotContaining(ManagementFactory.getRuntimeMXBean().getName()));
+    }
+
+    @Test
+    public void shouldSetUpTestClassInEachWorkerProcessBeforeRunningItsTests() throws Exception {
+        Runner runner = new ParameterisedRunner(WorkerProcessClassSetupExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(4)).fireTestStarted(notNull());
+        verify(runNotifier, never()).fireTestFailure(any());
+        verify(runNotifier, times(4)).fireTestFinished(notNull());
+    }
+
+    @Test
+    public void shouldSkipRemainingTestsOnceFailureBudgetOfClassIsSpent() throws Exception {
+        Runner runner = new ParameterisedRunner(MaxFailuresExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(3)).fireTestFailure(notNull());
+        verify(runNotifier, times(17)).fireTestIgnored(notNull());
+    }
+
+    @Test
+    public void shouldReportTimingsOfEachMethodWhenEnabledBySystemProperty() throws Exception {
+        File reportDirectory = temporaryFolder.newFolder();
+        System.setProperty(RunnerProperties.TIMINGS, reportDirectory.getPath());
+        Runner runner;
+        try {
+            runner = new ParameterisedRunner(ParameterIntValuesExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.TIMINGS);
+        }
+
+        runner.run(mock(RunNotifier.class));
+
+        String report = new String(Files.readAllBytes(reportDirectory.toPath()
+                .resolve(ParameterIntValuesExample.class.getName() + ".timings.txt")), StandardCharsets.UTF_8);
+        assertThat(report)
+                .containsPattern("aValidTest +construction +3 ")
+                .containsPattern("aValidTest +test +3 ")
+                .contains("slow case aFailingTest[");
+    }
+
+    @Test
+    public void shouldShareOneInstanceBetweenTestsOfAStatelessTestClass() throws Exception {
+        Runner runner = new ParameterisedRunner(StatelessTestExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+        int instances = StatelessTestExample.instancesCreated();
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(6)).fireTestFinished(notNull());
+        verify(runNotifier, never()).fireTestFailure(any());
+        assertThat(StatelessTestExample.instancesCreated() - instances).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDropTheSharedInstanceOfAStatelessTestClassOnceTheClassHasRun() throws Exception {
+        Runner runner = new ParameterisedRunner(StatelessTestExample.class);
+        int instances = StatelessTestExample.instancesCreated();
+
+        runner.run(mock(RunNotifier.class));
+        runner.run(mock(RunNotifier.class));
+
+        assertThat(StatelessTestExample.instancesCreated() - instances).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDeliverEveryNotificationInOrderOnAnotherThreadWhenEnabledBySystemProperty() throws Exception {
+        System.setProperty(RunnerProperties.ASYNC_NOTIFICATIONS, "true");
+        Runner runner;
+        try {
+            runner = new ParameterisedRunner(ParameterIntValuesExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.ASYNC_NOTIFICATIONS);
+        }
+        List<String> events = new ArrayList<>();
+        Set<Thread> threads = new HashSet<>();
+        RunNotifier runNotifier = new RunNotifier();
+        runNotifier.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) throws Exception {
+                threads.add(Thread.currentThread());
+                Thread.sleep(1);
+                events.add("started " + description.getMethodName());
+            }
+
+            @Override
+            public void testFailure(Failure failure) {
+                events.add("failed " + failure.getDescription().getMethodName());
+            }
+
+            @Override
+            public void testFinished(Description description) {
+                events.add("finished " + description.getMethodName());
+            }
+        });
+
+        runner.run(runNotifier);
+
+        assertThat(threads).doesNotContain(Thread.currentThread());
+        assertThat(events)
+                .hasSize(13)
+                .containsSubsequence("started aFailingTest[2]", "failed aFailingTest[2]", "finished aFailingTest[2]")
+                .containsSubsequence("started aValidTest[1]", "finished aValidTest[1]", "started aValidTest[2]");
+    }
+
+    @Test
+    public void shouldSkipTestsThatPassedInAnEarlierRunWhenResultsAreCached() throws Exception {
+        System.setProperty(RunnerProperties.RESULT_CACHE, temporaryFolder.newFolder().getPath());
+        Runner firstRun;
+        Runner secondRun;
+        try {
+            firstRun = new ParameterisedRunner(ParameterIntValuesExample.class);
+            secondRun = new ParameterisedRunner(ParameterIntValuesExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.RESULT_CACHE);
+        }
+        firstRun.run(mock(RunNotifier.class));
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        secondRun.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier).fireTestStarted(descriptionArgumentCaptor.capture());
+        verify(runNotifier).fireTestFailure(notNull());
+        verify(runNotifier, times(6)).fireTestIgnored(notNull());
+        assertThat(descriptionArgumentCaptor.getValue().getMethodName()).isEqualTo("aFailingTest[2]");
+    }
+
+    @Test
+    public void shouldReportCollapsedTestsAsIgnoredWhenEveryCasePassedInAnEarlierRun() throws Exception {
+        System.setProperty(RunnerProperties.RESULT_CACHE, temporaryFolder.newFolder().getPath());
+        Runner firstRun;
+        Runner secondRun;
+        try {
+            firstRun = new ParameterisedRunner(CollapsedCasesExample.class);
+            secondRun = new ParameterisedRunner(CollapsedCasesExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.RESULT_CACHE);
+        }
+        firstRun.run(mock(RunNotifier.class));
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        secondRun.run(runNotifier);
+
+        verify(runNotifier).fireTestIgnored(
+                Description.createTestDescription(CollapsedCasesExample.class, "aValidTest"));
+        verify(runNotifier).fireTestStarted(
+                Description.createTestDescription(CollapsedCasesExample.class, "aFailingTest"));
+        verify(runNotifier).fireTestFailure(notNull());
+    }
+
+    @Test
+    public void shouldRunTestsThatFailedInTheLastRunFirstWhenHistoryIsKept() throws Exception {
+        System.setProperty(RunnerProperties.HISTORY, temporaryFolder.newFolder().getPath());
+        Runner firstRun;
+        Runner secondRun;
+        try {
+            firstRun = new ParameterisedRunner(ParameterIntValuesExample.class);
+            firstRun.run(mock(RunNotifier.class));
+            secondRun = new ParameterisedRunner(ParameterIntValuesExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.HISTORY);
+        }
+
+        assertThat(firstRun.getDescription().getChildren())
+                .extracting(Description::getMethodName)
+                .containsExactly("aValidTest", "aFailingTest", "testIsIgnored");
+        assertThat(secondRun.getDescription().getChildren())
+                .extracting(Description::getMethodName)
+                .containsExactly("aFailingTest", "aValidTest", "testIsIgnored");
+    }
+
+    @Test
+    public void shouldKeepEveryCaseOfParameterisedTestSelectedByMethodName() throws Exception {
+        ParameterisedRunner runner = new ParameterisedRunner(CartesianProductExample.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.filter(Filter.matchMethodDescription(
+                Description.createTestDescription(CartesianProductExample.class, "aValidTest")));
+        runner.run(runNotifier);
+
+        assertThat(runner.getDescription().getChildren())
+                .extracting(Description::getMethodName)
+                .containsExactly("aValidTest");
+        verify(runNotifier, times(6)).fireTestStarted(notNull());
+    }
+
+    @Test
+    public void shouldOnlyRunCasesWhoseArgumentsMatchCasePredicate() throws Exception {
+        System.setProperty(RunnerProperties.CASE_PREDICATE, "arg0 in 2..5; arg0 != 3");
+        Runner runner;
+        try {
+            runner = new ParameterisedRunner(ParameterIntValuesExample.class);
+        } finally {
+            System.clearProperty(RunnerProperties.CASE_PREDICATE);
+        }
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(2)).fireTestStarted(descriptionArgumentCaptor.capture());
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactlyInAnyOrder("aValidTest[2]", "aFailingTest[2]");
+    }
+
+    @Test
+    public void shouldShareTheModelOfTestClassBetweenItsRunners() throws Exception {
+        ParameterisedRunner firstRunner = new ParameterisedRunner(TestExample.class);
+        ParameterisedRunner secondRunner = new ParameterisedRunner(TestExample.class);
+
+        assertThat(secondRunner.getTestClass()).isSameAs(firstRunner.getTestClass());
+    }
+
+    @Test
+    public void shouldReportTheSameErrorsForEveryRunnerOfInvalidClass() throws Exception {
+        List<Throwable> firstErrors = initializationErrors(InvalidRuleFieldVisibilityExample.class);
+
+        List<Throwable> secondErrors = initializationErrors(InvalidRuleFieldVisibilityExample.class);
+
+        assertThat(firstErrors).isNotEmpty();
+        assertThat(secondErrors).isEqualTo(firstErrors);
+    }
+
+    private static List<Throwable> initializationErrors(Class<?> testClass) {
+        try {
+            new ParameterisedRunner(testClass);
+            return new ArrayList<>();
+        } catch (InitializationError e) {
+            return e.getCauses();
+        }
+    }
 }
@@ -0,0 +1,474 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.*;
+
+public class ParameterisedTestRunnerTest extends AbstractRunnerTest<ParameterisedTestRunner> {
+    public ParameterisedTestRunnerTest() {
+        super(ParameterisedTestRunner.class);
+    }
+
+    @Test
+    public void shouldUseMethodNameWhenDescribingParameterisedTests() {
+        Runner runner = forValidTest(ParameterIntValuesExample.class, int.class);
+
+        Description description = runner.getDescription();
+
+        assertThat(description.getMethodName())
+                .isEqualTo("aValidTest");
+        assertThat(description.getClassName())
+                .isEqualTo(ParameterIntValuesExample.class.getName());
+    }
+
+    @Test
+    public void shouldNotKeepTheDescriptionsOfCasesOnceRun() {
+        Runner runner = forTest(ParameterIntRangeExample.class, "aMillionCaseTest", int.class);
+
+        runner.run(new RunNotifier());
+
+        assertThat(runner.getDescription().getChildren())
+                .isEmpty();
+    }
+
+    @Test
+    public void shouldDescribeCasesAsChildrenOfTheMethodUpToTheLimitSetBySystemProperty() {
+        System.setProperty(RunnerProperties.MAX_DESCRIBED_CASES, "2");
+        Runner runner;
+        try {
+            runner = forValidTest(ParameterIntValuesExample.class, int.class);
+        } finally {
+            System.clearProperty(RunnerProperties.MAX_DESCRIBED_CASES);
+        }
+
+        runner.run(mock(RunNotifier.class));
+        runner.run(mock(RunNotifier.class));
+
+        assertThat(runner.getDescription().getChildren())
+                .extracting(Description::getMethodName)
+                .containsExactly("aValidTest[1]", "aValidTest[2]");
+    }
+
+    @Test
+    public void shouldNotGenerateCasesWhenDescribingParameterisedTests() {
+        Runner runner = forValidTest(ParameterIntValuesExample.class, int.class);
+
+        Description description = runner.getDescription();
+
+        assertThat(description.getChildren())
+                .isEmpty();
+    }
+
+    @Test
+    public void shouldFailOnConstructionIfParameterHasNoValuesProvider() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("values provider");
+
+        forValidTest(ParameterisedTestExample.class, int.class);
+    }
+
+    @Test
+    public void shouldFailOnConstructionIfParameterDoesNotAcceptProvidedValues() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("should accept values");
+
+        forValidTest(InvalidParameterTypeExample.class, String.class);
+    }
+
+    @Test
+    public void shouldRunTestOnceForEachValue() {
+        Runner runner = forValidTest(ParameterIntValuesExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(3)).fireTestStarted(descriptionArgumentCaptor.capture());
+        verify(runNotifier, times(3)).fireTestFinished(notNull());
+        verify(runNotifier, never()).fireTestFailure(any());
+
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactly("aValidTest[1]", "aValidTest[2]", "aValidTest[3]");
+    }
+
+    @Test
+    public void shouldPassValueToTestAndReportFailingCase() {
+        Runner runner = forFailingTest(ParameterIntValuesExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Failure> failureArgumentCaptor = ArgumentCaptor.forClass(Failure.class);
+        verify(runNotifier).fireTestFailure(failureArgumentCaptor.capture());
+        Failure failure = failureArgumentCaptor.getValue();
+
+        assertThat(failure.getDescription().getMethodName())
+                .isEqualTo("aFailingTest[2]");
+        assertThat(failure.getException())
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("expected to fail");
+    }
+
+    @Test
+    public void shouldPassBoxedValueToTestAndReportFailingCase() {
+        Runner runner = forFailingTest(BoxedParameterIntValuesExample.class, Integer.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Failure> failureArgumentCaptor = ArgumentCaptor.forClass(Failure.class);
+        verify(runNotifier).fireTestFailure(failureArgumentCaptor.capture());
+        verify(runNotifier, times(3)).fireTestFinished(notNull());
+
+        assertThat(failureArgumentCaptor.getValue().getDescription().getMethodName())
+                .isEqualTo("aFailingTest[2]");
+    }
+
+    @Test
+    public void shouldRunTestForEveryStepOfARange() {
+        Runner runner = forValidTest(ParameterIntRangeExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(4)).fireTestStarted(descriptionArgumentCaptor.capture());
+
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactly("aValidTest[0]", "aValidTest[3]", "aValidTest[6]", "aValidTest[9]");
+    }
+
+    @Test
+    public void shouldRunTestForEveryStepOfADescendingRange() {
+        Runner runner = forTest(ParameterIntRangeExample.class, "aDescendingTest", int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(3)).fireTestStarted(descriptionArgumentCaptor.capture());
+
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactly("aDescendingTest[3]", "aDescendingTest[2]", "aDescendingTest[1]");
+    }
+
+    @Test
+    public void shouldNotGenerateValuesOfARangeWhenDescribingParameterisedTests() {
+        Runner runner = forTest(ParameterIntRangeExample.class, "aHugeTest", int.class);
+
+        Description description = runner.getDescription();
+
+        assertThat(description.getChildren())
+                .isEmpty();
+    }
+
+    @Test
+    public void shouldFailOnConstructionIfRangeStepIsZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("step");
+
+        forTest(ParameterIntRangeExample.class, "anInvalidTest", int.class);
+    }
+
+    @Test
+    public void shouldRunTestForEveryCombinationOfValues() {
+        Runner runner = forValidTest(CartesianProductExample.class, int.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(6)).fireTestStarted(descriptionArgumentCaptor.capture());
+        verify(runNotifier, never()).fireTestFailure(any());
+
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactly(
+                        "aValidTest[1, 0]", "aValidTest[1, 1]", "aValidTest[1, 2]",
+                        "aValidTest[2, 0]", "aValidTest[2, 1]", "aValidTest[2, 2]");
+    }
+
+    @Test
+    public void shouldStopGeneratingCombinationsAtCaseLimit() {
+        Runner runner = forTest(CartesianProductExample.class, "aLimitedTest", int.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(4)).fireTestStarted(descriptionArgumentCaptor.capture());
+
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactly("aLimitedTest[0, 0]", "aLimitedTest[0, 1]", "aLimitedTest[0, 2]", "aLimitedTest[0, 3]");
+    }
+
+    @Test
+    public void shouldNotRunTestIfAnyParameterHasNoValues() {
+        Runner runner = forTest(CartesianProductExample.class, "anEmptyTest", int.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verifyNoMoreInteractions(runNotifier);
+    }
+
+    @Test
+    public void shouldRunFewerCasesThanEveryCombinationWithCoveringArray() {
+        Runner runner = forValidTest(CoveringArrayExample.class, int.class, int.class, int.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, atLeast(9)).fireTestStarted(descriptionArgumentCaptor.capture());
+
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .hasSizeLessThan(81);
+    }
+
+    @Test
+    public void shouldPreferCoveringArrayOfMethodToThatOfClass() {
+        Runner runner = forTest(CoveringArrayExample.class, "anExhaustiveTest",
+                int.class, int.class, int.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(81)).fireTestStarted(notNull());
+    }
+
+    @Test
+    public void shouldDescribeCollapsedParameterisedTestsAsATest() {
+        Runner runner = forValidTest(CollapsedCasesExample.class, int.class);
+
+        Description description = runner.getDescription();
+
+        assertThat(description.isTest())
+                .isTrue();
+        assertThat(description.getMethodName())
+                .isEqualTo("aValidTest");
+    }
+
+    @Test
+    public void shouldReportCollapsedCasesAsASingleTest() {
+        Runner runner = forFailingTest(CollapsedCasesExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Failure> failureArgumentCaptor = ArgumentCaptor.forClass(Failure.class);
+        verify(runNotifier).fireTestStarted(runner.getDescription());
+        verify(runNotifier).fireTestFailure(failureArgumentCaptor.capture());
+        verify(runNotifier).fireTestFinished(runner.getDescription());
+        verifyNoMoreInteractions(runNotifier);
+
+        Failure failure = failureArgumentCaptor.getValue();
+        assertThat(failure.getDescription())
+                .isEqualTo(runner.getDescription());
+        assertThat(failure.getException())
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("aFailingTest[2]")
+                .hasMessageContaining("expected to fail");
+    }
+
+    @Test
+    public void shouldSkipRemainingCasesWithoutCreatingInstancesOnceFailureBudgetIsSpent() {
+        Runner runner = forFailingTest(MaxFailuresExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+        int instances = MaxFailuresExample.instancesCreated();
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(2)).fireTestFailure(notNull());
+        verify(runNotifier, times(8)).fireTestIgnored(notNull());
+        assertThat(MaxFailuresExample.instancesCreated() - instances)
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void shouldOnlyNotifyTestAsIgnoredIfAnnotatedWithIgnore() {
+        IgnorableRunner runner = forTest(ParameterIntValuesExample.class, "testIsIgnored", int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        verify(runNotifier).fireTestIgnored(notNull());
+        verifyNoMoreInteractions(runNotifier);
+    }
+
+    @Test
+    public void shouldRunOnlyTheCaseSelectedByFilterWithoutGeneratingTheOthers() throws Exception {
+        ParameterisedTestRunner runner = forTest(ParameterIntRangeExample.class, "aHugeTest", int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.filter(Filter.matchMethodDescription(
+                Description.createTestDescription(ParameterIntRangeExample.class, "aHugeTest[123456789]")));
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier).fireTestStarted(descriptionArgumentCaptor.capture());
+        verify(runNotifier).fireTestFinished(notNull());
+        assertThat(descriptionArgumentCaptor.getValue().getMethodName())
+                .isEqualTo("aHugeTest[123456789]");
+    }
+
+    @Test
+    public void shouldFindTheCaseSelectedByFilterFromTheValuesOfEveryParameter() throws Exception {
+        ParameterisedTestRunner runner = forValidTest(CartesianProductExample.class, int.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.filter(Filter.matchMethodDescription(
+                Description.createTestDescription(CartesianProductExample.class, "aValidTest[2, 1]")));
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier).fireTestStarted(descriptionArgumentCaptor.capture());
+        assertThat(descriptionArgumentCaptor.getValue().getMethodName())
+                .isEqualTo("aValidTest[2, 1]");
+    }
+
+    @Test
+    public void shouldRejectFilterSelectingACaseThatIsNotGenerated() throws Exception {
+        ParameterisedTestRunner runner = forValidTest(ParameterIntRangeExample.class, int.class);
+        expectedException.expect(NoTestsRemainException.class);
+
+        runner.filter(Filter.matchMethodDescription(
+                Description.createTestDescription(ParameterIntRangeExample.class, "aValidTest[4]")));
+    }
+
+    @Test
+    public void shouldApplyFilterSelectingACaseToEachCaseWhenItDescribesItselfDifferently() throws Exception {
+        ParameterisedTestRunner runner = forValidTest(ParameterIntRangeExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.filter(casesNamed("aValidTest[3]", "Cases named aValidTest[3]"));
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier).fireTestStarted(descriptionArgumentCaptor.capture());
+        assertThat(descriptionArgumentCaptor.getValue().getMethodName())
+                .isEqualTo("aValidTest[3]");
+    }
+
+    @Test
+    public void shouldNotTrustFilterDescribingItselfAsSelectingACaseItDoesNotRun() throws Exception {
+        ParameterisedTestRunner runner = forValidTest(ParameterIntRangeExample.class, int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.filter(casesNamed("aValidTest[3]",
+                "Method aValidTest[6](" + ParameterIntRangeExample.class.getName() + ")"));
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier).fireTestStarted(descriptionArgumentCaptor.capture());
+        assertThat(descriptionArgumentCaptor.getValue().getMethodName())
+                .isEqualTo("aValidTest[3]");
+    }
+
+    @Test
+    public void shouldPassEachRowOfCsvFileAsItsFields() {
+        Runner runner = forValidTest(FileRowsExample.class, String[].class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(3)).fireTestStarted(descriptionArgumentCaptor.capture());
+        verify(runNotifier, never()).fireTestFailure(any());
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .containsExactly(
+                        "aValidTest[[1, hello, plain]]",
+                        "aValidTest[[2, \"hello, world\", \"say \"\"hi\"\"\"]]",
+                        "aValidTest[[3, \"\", \"\"]]");
+    }
+
+    @Test
+    public void shouldPassEachRecordOfBinaryFileAsABufferOverTheFile() {
+        Runner runner = forTest(FileRowsExample.class, "aBinaryTest", ByteBuffer.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(4)).fireTestStarted(descriptionArgumentCaptor.capture());
+        verify(runNotifier, never()).fireTestFailure(any());
+        assertThat(descriptionArgumentCaptor.getAllValues().get(0).getMethodName())
+                .isEqualTo("aBinaryTest[000000010000000000000064]");
+    }
+
+    @Test
+    public void shouldPassEveryCombinationOfValuesReturnedByFactoryMethods() {
+        Runner runner = forValidTest(FactoryMethodExample.class, String.class, Integer.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+        int streamsClosed = FactoryMethodExample.streamsClosed();
+
+        runner.run(runNotifier);
+
+        ArgumentCaptor<Description> descriptionArgumentCaptor = ArgumentCaptor.forClass(Description.class);
+        verify(runNotifier, times(6)).fireTestStarted(descriptionArgumentCaptor.capture());
+        assertThat(descriptionArgumentCaptor.getAllValues())
+                .extracting(Description::getMethodName)
+                .startsWith("aValidTest[one, 3]", "aValidTest[one, 5]", "aValidTest[two, 3]");
+        assertThat(FactoryMethodExample.streamsClosed() - streamsClosed)
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldConsumeUnboundedFactoryMethodStreamLazilyAndCloseIt() {
+        Runner runner = forTest(FactoryMethodExample.class, "anUnboundedTest", int.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+        int streamsClosed = FactoryMethodExample.streamsClosed();
+
+        runner.run(runNotifier);
+
+        verify(runNotifier, times(5)).fireTestStarted(notNull());
+        verify(runNotifier, never()).fireTestFailure(any());
+        assertThat(FactoryMethodExample.streamsClosed() - streamsClosed)
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldShareCachedFactoryMethodValuesBetweenRunners() {
+        Runner firstRunner = forTest(FactoryMethodExample.class, "aCachedTest", String.class);
+        Runner secondRunner = forTest(FactoryMethodExample.class, "aCachedTest", String.class);
+        RunNotifier runNotifier = mock(RunNotifier.class);
+        firstRunner.run(runNotifier);
+        int colourCalls = FactoryMethodExample.colourCalls();
+
+        secondRunner.run(runNotifier);
+
+        verify(runNotifier, times(4)).fireTestStarted(notNull());
+        assertThat(FactoryMethodExample.colourCalls())
+                .isEqualTo(colourCalls);
+    }
+
+    private static Filter casesNamed(String name, String description) {
+        return new Filter() {
+            @Override
+            public boolean shouldRun(Description candidate) {
+                return name.equals(candidate.getMethodName());
+            }
+
+            @Override
+            public String describe() {
+                return description;
+            }
+        };
+    }
+}
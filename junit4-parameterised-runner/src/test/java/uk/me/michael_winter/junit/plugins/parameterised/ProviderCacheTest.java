@@ -0,0 +1,130 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProviderCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldGenerateValuesOnceForEveryRequest() {
+        ProviderCache cache = new ProviderCache(10);
+
+        List<Integer> first = cache.values("values", () -> load(1, 2, 3), List::size);
+        List<Integer> second = cache.values("values", () -> load(1, 2, 3), List::size);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldOnlyHoldLeastRecentlyUsedValuesSoftlyOnceFull() {
+        ProviderCache cache = new ProviderCache(5);
+        cache.values("first", () -> load(1, 2), List::size);
+        cache.values("second", () -> load(3, 4), List::size);
+        cache.values("first", () -> load(1, 2), List::size);
+
+        cache.values("third", () -> load(5, 6), List::size);
+
+        assertThat(cache.isHeld("first")).isTrue();
+        assertThat(cache.isHeld("second")).isFalse();
+        assertThat(cache.isHeld("third")).isTrue();
+    }
+
+    @Test
+    public void shouldNeverHoldValuesHeavierThanTheCacheStrongly() {
+        ProviderCache cache = new ProviderCache(2);
+
+        List<Integer> values = cache.values("values", () -> load(1, 2, 3), List::size);
+
+        assertThat(values).containsExactly(1, 2, 3);
+        assertThat(cache.isHeld("values")).isFalse();
+    }
+
+    @Test
+    public void shouldFailRatherThanWaitForValuesNeededToGenerateThemselves() {
+        ProviderCache cache = new ProviderCache(10);
+
+        assertThatThrownBy(() -> cache.values("values", () -> cache.values("values", () -> load(1), List::size),
+                List::size))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("needed to generate themselves");
+        assertThat(cache.values("values", () -> load(1), List::size)).containsExactly(1);
+    }
+
+    @Test
+    public void shouldFailRatherThanWaitForValuesGeneratedByAThreadWaitingOnThem() throws Exception {
+        ProviderCache cache = new ProviderCache(10);
+        CountDownLatch bothLoading = new CountDownLatch(2);
+
+        CompletableFuture<List<Integer>> first = CompletableFuture.supplyAsync(() -> cache.values("first", () -> {
+            awaitBoth(bothLoading);
+            return cache.values("second", () -> load(2), List::size);
+        }, List::size));
+        CompletableFuture<List<Integer>> second = CompletableFuture.supplyAsync(() -> cache.values("second", () -> {
+            awaitBoth(bothLoading);
+            return cache.values("first", () -> load(1), List::size);
+        }, List::size));
+
+        for (CompletableFuture<List<Integer>> values : Arrays.asList(first, second)) {
+            assertThatThrownBy(() -> values.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    public void shouldFailRatherThanWaitForValuesOfAnotherCacheGeneratedByAThreadWaitingOnThem() throws Exception {
+        ProviderCache firstCache = new ProviderCache(10);
+        ProviderCache secondCache = new ProviderCache(10);
+        CountDownLatch bothLoading = new CountDownLatch(2);
+
+        CompletableFuture<List<Integer>> first = CompletableFuture.supplyAsync(() -> firstCache.values("values",
+                () -> {
+                    awaitBoth(bothLoading);
+                    return secondCache.values("values", () -> load(2), List::size);
+                }, List::size));
+        CompletableFuture<List<Integer>> second = CompletableFuture.supplyAsync(() -> secondCache.values("values",
+                () -> {
+                    awaitBoth(bothLoading);
+                    return firstCache.values("values", () -> load(1), List::size);
+                }, List::size));
+
+        for (CompletableFuture<List<Integer>> values : Arrays.asList(first, second)) {
+            assertThatThrownBy(() -> values.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    public void shouldKeepACacheForEachClassDeclaringProviders() {
+        assertThat(ProviderCache.forClass(FactoryMethodExample.class))
+                .isSameAs(ProviderCache.forClass(FactoryMethodExample.class))
+                .isNotSameAs(ProviderCache.forClass(ProviderCacheTest.class));
+    }
+
+    private static void awaitBoth(CountDownLatch bothLoading) {
+        bothLoading.countDown();
+        try {
+            bothLoading.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Integer> load(Integer... values) {
+        loads.incrementAndGet();
+        return Arrays.asList(values);
+    }
+}
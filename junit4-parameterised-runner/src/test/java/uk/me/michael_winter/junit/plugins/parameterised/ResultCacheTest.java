@@ -0,0 +1,136 @@
+package uk.me.michael_winter.junit.plugins.parameterised;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.stream.IntStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultCacheTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRememberEveryPassingTestAsTheTableGrows() throws Exception {
+        ResultCache results = resultCacheFor(ShardedExample.class);
+
+        IntStream.range(0, 5_000).forEach(i -> results.recordPassed(intTest(), new Object[]{i}));
+
+        assertThat(IntStream.range(0, 5_000).allMatch(i -> results.hasPassed(intTest(), new Object[]{i}))).isTrue();
+        assertThat(results.hasPassed(intTest(), new Object[]{5_000})).isFalse();
+    }
+
+    @Test
+    public void shouldRememberPassingTestsOnceClosed() throws Exception {
+        ResultCache results = resultCacheFor(ShardedExample.class);
+
+        results.recordPassed(intTest(), new Object[]{1});
+        results.close();
+
+        assertThat(results.hasPassed(intTest(), new Object[]{1})).isTrue();
+        assertThat(results.hasPassed(intTest(), new Object[]{2})).isFalse();
+    }
+
+    @Test
+    public void shouldRememberPassingTestsByTheValuesOfTheirArguments() throws Exception {
+        ResultCache results = resultCacheFor(ShardedExample.class);
+
+        results.recordPassed(objectTest(), new Object[]{new String[]{"a", "b"}});
+        results.recordPassed(objectTest(), new Object[]{ByteBuffer.wrap(new byte[64])});
+
+        assertThat(results.hasPassed(objectTest(), new Object[]{new String[]{"a", "b"}})).isTrue();
+        assertThat(results.hasPassed(objectTest(), new Object[]{new String[]{"a,b"}})).isFalse();
+        assertThat(results.hasPassed(objectTest(), new Object[]{ByteBuffer.wrap(new byte[64])})).isTrue();
+        byte[] differentRecord = new byte[64];
+        differentRecord[63] = 1;
+        assertThat(results.hasPassed(objectTest(), new Object[]{ByteBuffer.wrap(differentRecord)})).isFalse();
+        assertThat(results.hasPassed(intTest(), new Object[]{1})).isFalse();
+    }
+
+    @Test
+    public void shouldNotRememberTestsPassedArgumentsComparedByIdentity() throws Exception {
+        ResultCache results = resultCacheFor(ShardedExample.class);
+        Object argument = new Object();
+
+        results.recordPassed(objectTest(), new Object[]{argument});
+
+        assertThat(results.hasPassed(objectTest(), new Object[]{argument})).isFalse();
+    }
+
+    @Test
+    public void shouldNeitherReadNorRecordResultsWhileTheFileIsLockedElsewhere() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        ResultCache results = resultCacheFor(ShardedExample.class, directory);
+        results.recordPassed(intTest(), new Object[]{1});
+        results.close();
+
+        File file = new File(directory, ShardedExample.class.getName() + ".results");
+        try (FileChannel channel = FileChannel.open(file.toPath(), CREATE, WRITE)) {
+            FileLock lock = channel.lock();
+            results.recordPassed(intTest(), new Object[]{2});
+
+            assertThat(results.hasPassed(intTest(), new Object[]{1})).isFalse();
+            results.close();
+            assertThat(lock.isValid()).isTrue();
+        }
+        assertThat(results.hasPassed(intTest(), new Object[]{1})).isTrue();
+        assertThat(results.hasPassed(intTest(), new Object[]{2})).isFalse();
+    }
+
+    @Test
+    public void shouldKeepTheResultsOfEachShardInItsOwnFile() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        System.setProperty(RunnerProperties.SHARD_INDEX, "1");
+        System.setProperty(RunnerProperties.SHARD_COUNT, "3");
+        ResultCache results;
+        try {
+            results = resultCacheFor(ShardedExample.class, directory);
+        } finally {
+            System.clearProperty(RunnerProperties.SHARD_INDEX);
+            System.clearProperty(RunnerProperties.SHARD_COUNT);
+        }
+
+        results.recordPassed(intTest(), new Object[]{1});
+        results.close();
+
+        assertThat(directory.list()).containsExactly(ShardedExample.class.getName() + ".shard-1-of-3.results");
+    }
+
+    private static Method intTest() {
+        return method("aParameterisedTest", int.class);
+    }
+
+    private static Method objectTest() {
+        return method("anUnnamedParameterTest", Object.class);
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) {
+        try {
+            return ShardedExample.class.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private ResultCache resultCacheFor(Class<?> testClass) throws Exception {
+        return resultCacheFor(testClass, temporaryFolder.newFolder());
+    }
+
+    private static ResultCache resultCacheFor(Class<?> testClass, File directory) {
+        System.setProperty(RunnerProperties.RESULT_CACHE, directory.getPath());
+        try {
+            return ResultCache.forClass(testClass);
+        } finally {
+            System.clearProperty(RunnerProperties.RESULT_CACHE);
+        }
+    }
+}